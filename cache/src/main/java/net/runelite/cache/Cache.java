@@ -24,9 +24,15 @@
  */
 package net.runelite.cache;
 
+import com.google.gson.GsonBuilder;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.util.XteaKeyManager;
+import net.runelite.cache.verify.CacheVerifier;
+import net.runelite.cache.verify.VerificationReport;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -45,6 +51,8 @@ public class Cache
 		options.addOption(null, "npcs", true, "directory to dump npcs to");
 		options.addOption(null, "objects", true, "directory to dump objects to");
 		options.addOption(null, "sprites", true, "directory to dump sprites to");
+		options.addOption(null, "verify", true, "file to write the cache verification report to");
+		options.addOption(null, "xtea", false, "load xtea keys to verify encrypted map archives");
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -115,6 +123,23 @@ public class Cache
 			System.out.println("Dumping sprites to " + spritedir);
 			dumpSprites(store, new File(spritedir));
 		}
+		else if (cmd.hasOption("verify"))
+		{
+			String reportfile = cmd.getOptionValue("verify");
+
+			if (reportfile == null)
+			{
+				System.err.println("Report file must be specified");
+				return;
+			}
+
+			System.out.println("Verifying cache to " + reportfile);
+			if (!verify(store, new File(reportfile), cmd.hasOption("xtea")))
+			{
+				System.err.println("Cache verification failed");
+				System.exit(1);
+			}
+		}
 		else
 		{
 			System.err.println("Nothing to do");
@@ -152,6 +177,29 @@ public class Cache
 		dumper.java(objectdir);
 	}
 
+	private static boolean verify(Store store, File reportfile, boolean xtea) throws IOException
+	{
+		XteaKeyManager keyManager = null;
+		if (xtea)
+		{
+			keyManager = new XteaKeyManager();
+			keyManager.loadKeys();
+		}
+
+		CacheVerifier verifier = new CacheVerifier(store, keyManager);
+		VerificationReport report = verifier.verify(ForkJoinPool.commonPool());
+
+		try (FileWriter fw = new FileWriter(reportfile))
+		{
+			new GsonBuilder()
+				.setPrettyPrinting()
+				.create()
+				.toJson(report, fw);
+		}
+
+		return report.isValid();
+	}
+
 	private static void dumpSprites(Store store, File spritedir) throws IOException
 	{
 		SpriteManager dumper = new SpriteManager(store);
@@ -28,9 +28,21 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -53,6 +65,7 @@ import net.runelite.cache.region.Location;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
 import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.XteaKeyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,6 +77,7 @@ public class MapImageDumper
 	private static final int MAPICON_MAX_WIDTH = 5; // scale minimap icons down to this size so they fit..
 	private static final int MAPICON_MAX_HEIGHT = 6;
 	private static final int BLEND = 5; // number of surrounding tiles for ground blending
+	private static final int TILE_SIZE = Region.X * MAP_SCALE; // pixels per side of a map tile, one region at the highest zoom
 
 	private static int[] colorPalette = new ColorPalette(0.9d, 0, 512).getColorPalette();
 
@@ -74,10 +88,12 @@ public class MapImageDumper
 	private final int doorColor = 238 + (int) (Math.random() * 20.0D) - 10 << 16;
 
 	private final Store store;
+	private final XteaKeyManager keyManager;
 
 	private final Map<Integer, UnderlayDefinition> underlays = new HashMap<>();
 	private final Map<Integer, OverlayDefinition> overlays = new HashMap<>();
 	private final Map<Integer, Image> scaledMapIcons = new HashMap<>();
+	private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
 
 	private RegionLoader regionLoader;
 	private final AreaManager areas;
@@ -93,9 +109,36 @@ public class MapImageDumper
 	@Setter
 	private boolean outlineRegions;
 
+	/**
+	 * Per thread buffers reused between regions and tiles
+	 */
+	private static class Scratch
+	{
+		private final int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+		private final int[][] above = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+		// a region and its eight neighbours, so icons overlapping the edge of a tile are drawn
+		private final BufferedImage region = new BufferedImage(TILE_SIZE * 3, TILE_SIZE * 3, BufferedImage.TYPE_INT_RGB);
+		private final BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+		private final int[] child = new int[TILE_SIZE * TILE_SIZE];
+	}
+
+	private interface TileTask<T>
+	{
+		void run(T item) throws IOException;
+	}
+
 	public MapImageDumper(Store store)
+	{
+		this(store, null);
+	}
+
+	/**
+	 * @param keyManager keys to decrypt the region locations with, or null to download them on load
+	 */
+	public MapImageDumper(Store store, XteaKeyManager keyManager)
 	{
 		this.store = store;
+		this.keyManager = keyManager;
 		this.areas = new AreaManager(store);
 		this.sprites = new SpriteManager(store);
 		objectManager = new ObjectManager(store);
@@ -158,15 +201,213 @@ public class MapImageDumper
 		return image;
 	}
 
+	/**
+	 * Draws plane z as a slippy map tile pyramid, {@code outDir/zoom/x/y.png}, without
+	 * holding more than a few tiles per thread in memory. The highest zoom level has one
+	 * region per tile, each lower level halves the resolution down to a single tile at
+	 * zoom 0. Tiles without any regions are not written.
+	 *
+	 * @return the highest zoom level
+	 */
+	public int drawMapTiles(int z, File outDir, ForkJoinPool pool) throws IOException
+	{
+		int minRegionX = regionLoader.getLowestX().getRegionX();
+		int maxRegionY = regionLoader.getHighestY().getRegionY();
+		int tilesX = regionLoader.getHighestX().getRegionX() - minRegionX + 1;
+		int tilesY = maxRegionY - regionLoader.getLowestY().getRegionY() + 1;
+
+		int maxZoom = 0;
+		while ((1 << maxZoom) < Math.max(tilesX, tilesY))
+		{
+			++maxZoom;
+		}
+
+		logger.info("Drawing {} x {} tiles of {}px for plane {}, zoom levels 0-{}", tilesX, tilesY, TILE_SIZE, z, maxZoom);
+
+		Set<Integer> regionTiles = ConcurrentHashMap.newKeySet();
+		final int zoom = maxZoom;
+
+		forEach(pool, regionLoader.getRegions(), region ->
+		{
+			int tileX = region.getRegionX() - minRegionX;
+			int tileY = maxRegionY - region.getRegionY();
+
+			writeTile(drawTile(region, z), outDir, zoom, tileX, tileY);
+			regionTiles.add(tileX << 16 | tileY);
+		});
+
+		Set<Integer> tiles = regionTiles;
+		for (int level = maxZoom - 1; level >= 0; --level)
+		{
+			Set<Integer> parents = new HashSet<>();
+			for (int tile : tiles)
+			{
+				parents.add((tile >>> 16) >> 1 << 16 | (tile & 0xFFFF) >> 1);
+			}
+
+			final int childZoom = level + 1;
+			final int parentZoom = level;
+			forEach(pool, parents, tile ->
+			{
+				int tileX = tile >>> 16;
+				int tileY = tile & 0xFFFF;
+				writeTile(downsample(outDir, childZoom, tileX, tileY), outDir, parentZoom, tileX, tileY);
+			});
+
+			tiles = parents;
+		}
+
+		return maxZoom;
+	}
+
+	private BufferedImage drawTile(Region region, int z)
+	{
+		Scratch s = scratch.get();
+		BufferedImage image = s.region;
+		Arrays.fill(((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0);
+
+		drawMap(image, Region.X, Region.Y, z, region);
+
+		// objects and icons from neighbouring regions can overlap this one
+		Region[] neighbours = new Region[9];
+		for (int dy = 1; dy >= -1; --dy)
+		{
+			for (int dx = -1; dx <= 1; ++dx)
+			{
+				neighbours[(1 - dy) * 3 + dx + 1] = regionLoader.findRegionForWorldCoordinates(
+					region.getBaseX() + dx * Region.X, region.getBaseY() + dy * Region.Y);
+			}
+		}
+
+		for (int i = 0; i < neighbours.length; ++i)
+		{
+			if (neighbours[i] != null)
+			{
+				drawObjects(image, i % 3 * Region.X, i / 3 * Region.Y, neighbours[i], z);
+			}
+		}
+
+		for (int i = 0; i < neighbours.length; ++i)
+		{
+			if (neighbours[i] != null)
+			{
+				drawMapIcons(image, i % 3 * Region.X, i / 3 * Region.Y, neighbours[i], z);
+			}
+		}
+
+		return image.getSubimage(TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE);
+	}
+
+	private BufferedImage downsample(File outDir, int childZoom, int tileX, int tileY) throws IOException
+	{
+		Scratch s = scratch.get();
+		BufferedImage image = s.tile;
+		int[] out = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		Arrays.fill(out, 0);
+
+		int half = TILE_SIZE / 2;
+		for (int i = 0; i < 4; ++i)
+		{
+			File file = tileFile(outDir, childZoom, tileX * 2 + (i & 1), tileY * 2 + (i >> 1));
+			if (!file.exists())
+			{
+				continue;
+			}
+
+			BufferedImage child = ImageIO.read(file);
+			int[] pixels = child.getRGB(0, 0, TILE_SIZE, TILE_SIZE, s.child, 0, TILE_SIZE);
+			int offX = (i & 1) * half;
+			int offY = (i >> 1) * half;
+
+			for (int y = 0; y < half; ++y)
+			{
+				for (int x = 0; x < half; ++x)
+				{
+					int p = y * 2 * TILE_SIZE + x * 2;
+					out[(offY + y) * TILE_SIZE + offX + x] = average(pixels[p], pixels[p + 1],
+						pixels[p + TILE_SIZE], pixels[p + TILE_SIZE + 1]);
+				}
+			}
+		}
+
+		return image;
+	}
+
+	private static int average(int a, int b, int c, int d)
+	{
+		int r = ((a >> 16 & 0xFF) + (b >> 16 & 0xFF) + (c >> 16 & 0xFF) + (d >> 16 & 0xFF)) >> 2;
+		int g = ((a >> 8 & 0xFF) + (b >> 8 & 0xFF) + (c >> 8 & 0xFF) + (d >> 8 & 0xFF)) >> 2;
+		int bl = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF)) >> 2;
+		return r << 16 | g << 8 | bl;
+	}
+
+	private static File tileFile(File outDir, int zoom, int tileX, int tileY)
+	{
+		return new File(outDir, zoom + File.separator + tileX + File.separator + tileY + ".png");
+	}
+
+	private static void writeTile(BufferedImage image, File outDir, int zoom, int tileX, int tileY) throws IOException
+	{
+		File file = tileFile(outDir, zoom, tileX, tileY);
+		file.getParentFile().mkdirs();
+
+		if (!ImageIO.write(image, "png", file))
+		{
+			throw new IOException("no png writer for tile " + file);
+		}
+	}
+
+	private static <T> void forEach(ForkJoinPool pool, Collection<T> items, TileTask<T> task) throws IOException
+	{
+		Collection<T> copy = new ArrayList<>(items);
+
+		try
+		{
+			pool.submit(() -> copy.parallelStream().forEach(item ->
+			{
+				try
+				{
+					task.run(item);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+			})).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted drawing tiles", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
 	private void drawMap(BufferedImage image, int drawBaseX, int drawBaseY, int z, Region region)
 	{
-		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+		Scratch s = scratch.get();
+
+		int[][] map = s.map;
+		clear(map);
 		drawMap(map, region, z);
 
 		int[][] above = null;
 		if (z < 3)
 		{
-			above = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+			above = s.above;
+			clear(above);
 			drawMap(above, region, z + 1);
 		}
 
@@ -208,6 +449,14 @@ public class MapImageDumper
 		}
 	}
 
+	private static void clear(int[][] pixels)
+	{
+		for (int[] column : pixels)
+		{
+			Arrays.fill(column, 0);
+		}
+	}
+
 	private void drawTile(BufferedImage to, int[][] pixels, int drawBaseX, int drawBaseY, int x, int y)
 	{
 		for (int i = 0; i < MAP_SCALE; ++i)
@@ -893,9 +1142,8 @@ public class MapImageDumper
 
 	private void loadRegions(Store store) throws IOException
 	{
-		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
-		regionLoader.calculateBounds();
+		regionLoader = keyManager != null ? new RegionLoader(store, keyManager) : new RegionLoader(store);
+		regionLoader.loadRegions(ForkJoinPool.commonPool(), null);
 
 		logger.info("North most region: {}", regionLoader.getLowestY().getBaseY());
 		logger.info("South most region: {}", regionLoader.getHighestY().getBaseY());
@@ -974,8 +1222,12 @@ public class MapImageDumper
 					BufferedImage spriteImage = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
 					spriteImage.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), sprite.getPixels(), 0, sprite.getWidth());
 
-					// scale image down so it fits
-					Image scaledImage = spriteImage.getScaledInstance(MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, 0);
+					// scale image down so it fits. this is drawn up front, rather than using a
+					// lazily produced scaled instance, so the threads drawing tiles can share it
+					BufferedImage scaledImage = new BufferedImage(MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+					Graphics2D graphics = scaledImage.createGraphics();
+					graphics.drawImage(spriteImage, 0, 0, MAPICON_MAX_WIDTH, MAPICON_MAX_HEIGHT, null);
+					graphics.dispose();
 
 					assert scaledMapIcons.containsKey(sprite.getFrame()) == false;
 					scaledMapIcons.put(sprite.getFrame(), scaledImage);
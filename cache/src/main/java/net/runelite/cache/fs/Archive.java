@@ -170,6 +170,10 @@ public class Archive
 	public void setNameHash(int nameHash)
 	{
 		this.nameHash = nameHash;
+		if (index != null)
+		{
+			index.nameHashChanged();
+		}
 	}
 
 	public int getCrc()
@@ -27,8 +27,8 @@ package net.runelite.cache.fs;
 import static com.google.common.primitives.Bytes.concat;
 import com.google.common.primitives.Ints;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import net.runelite.cache.fs.jagex.CompressionType;
-import net.runelite.cache.io.InputStream;
 import net.runelite.cache.io.OutputStream;
 import net.runelite.cache.util.BZip2;
 import net.runelite.cache.util.Crc32;
@@ -92,94 +92,69 @@ public class Container
 
 	public static Container decompress(byte[] b, int[] keys) throws IOException
 	{
-		InputStream stream = new InputStream(b);
+		if (keys != null)
+		{
+			// decryption is done in place, leave the caller's data alone
+			b = b.clone();
+		}
+
+		return decompress(ByteBuffer.wrap(b), keys);
+	}
+
+	/**
+	 * Decompresses the container from the position to the limit of buf, without
+	 * copying the compressed data. If keys are given the data is decrypted in place,
+	 * so buf must be writable and is left decrypted. The position of buf is not changed.
+	 */
+	public static Container decompress(ByteBuffer buf, int[] keys) throws IOException
+	{
+		ByteBuffer in = buf.slice();
 
-		int compression = stream.readUnsignedByte();
-		int compressedLength = stream.readInt();
+		int compression = in.get() & 0xFF;
+		int compressedLength = in.getInt();
 		if (compressedLength < 0 || compressedLength > 1000000)
 		{
 			throw new RuntimeException("Invalid data");
 		}
 
+		// compressed data is prefixed with its decompressed length
+		int length = compression == CompressionType.NONE ? compressedLength : compressedLength + 4;
+
 		Crc32 crc32 = new Crc32();
-		crc32.update(b, 0, 5); // compression + length
+		crc32.update(in, 0, 5 + length); // compression + length + data
+
+		if (keys != null)
+		{
+			new Xtea(keys).decrypt(in, 5, length);
+		}
 
-		byte[] data;
 		int revision = -1;
+		if (in.limit() - 5 - length >= 2)
+		{
+			revision = in.getShort(5 + length) & 0xFFFF;
+		}
+
+		byte[] data;
 		switch (compression)
 		{
 			case CompressionType.NONE:
 			{
-				byte[] encryptedData = new byte[compressedLength];
-				stream.readBytes(encryptedData, 0, compressedLength);
-
-				crc32.update(encryptedData, 0, compressedLength);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
-
-				data = decryptedData;
-
+				data = new byte[compressedLength];
+				in.get(data);
 				break;
 			}
 			case CompressionType.BZ2:
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
-
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = BZip2.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
-				{
-					return null;
-				}
-
-				assert data.length == decompressedLength;
-
+				int decompressedLength = in.getInt();
+				in.limit(9 + compressedLength);
+				data = BZip2.decompress(in, decompressedLength);
 				break;
 			}
 			case CompressionType.GZ:
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
-
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = GZip.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
-				{
-					return null;
-				}
-
-				assert data.length == decompressedLength;
-
+				int decompressedLength = in.getInt();
+				in.limit(9 + compressedLength);
+				data = GZip.decompress(in, decompressedLength);
 				break;
 			}
 			default:
@@ -192,17 +167,6 @@ public class Container
 		return container;
 	}
 
-	private static byte[] decrypt(byte[] data, int length, int[] keys)
-	{
-		if (keys == null)
-		{
-			return data;
-		}
-
-		Xtea xtea = new Xtea(keys);
-		return xtea.decrypt(data, length);
-	}
-
 	private static byte[] encrypt(byte[] data, int length, int[] keys)
 	{
 		if (keys == null)
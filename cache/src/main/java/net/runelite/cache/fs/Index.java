@@ -25,7 +25,9 @@
 package net.runelite.cache.fs;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import net.runelite.cache.index.ArchiveData;
 import net.runelite.cache.index.FileData;
@@ -47,6 +49,12 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	private final Map<Integer, Archive> archivesById = new HashMap<>();
+	/**
+	 * Archives by name hash, rebuilt on the next lookup after an archive is added, removed or renamed
+	 */
+	private final Map<Integer, Archive> archivesByName = new HashMap<>();
+	private boolean archivesByNameDirty;
 
 	public Index(int id)
 	{
@@ -154,32 +162,59 @@ public class Index
 	{
 		Archive archive = new Archive(this, id);
 		this.archives.add(archive);
+		archivesById.putIfAbsent(id, archive);
+		archivesByNameDirty = true;
 		return archive;
 	}
 
-	public Archive getArchive(int id)
+	public void removeArchive(Archive archive)
 	{
-		for (Archive a : archives)
+		if (!archives.removeIf(a -> a == archive))
+		{
+			return;
+		}
+
+		int id = archive.getArchiveId();
+		if (archivesById.get(id) == archive)
 		{
-			if (a.getArchiveId() == id)
+			archivesById.remove(id);
+
+			// another archive may have the same id
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getArchiveId() == id)
+				{
+					archivesById.put(id, a);
+					break;
+				}
 			}
 		}
-		return null;
+		archivesByNameDirty = true;
+	}
+
+	public Archive getArchive(int id)
+	{
+		return archivesById.get(id);
 	}
 
 	public Archive findArchiveByName(String name)
 	{
-		int hash = Djb2.hash(name);
-		for (Archive a : archives)
+		if (archivesByNameDirty)
 		{
-			if (a.getNameHash() == hash)
+			archivesByName.clear();
+			for (Archive a : archives)
 			{
-				return a;
+				archivesByName.putIfAbsent(a.getNameHash(), a);
 			}
+			archivesByNameDirty = false;
 		}
-		return null;
+
+		return archivesByName.get(Djb2.hash(name));
+	}
+
+	void nameHashChanged()
+	{
+		archivesByNameDirty = true;
 	}
 
 	public IndexData toIndexData()
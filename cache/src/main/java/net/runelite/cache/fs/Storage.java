@@ -39,5 +39,29 @@ public interface Storage extends AutoCloseable
 
 	byte[] loadArchive(Archive archive) throws IOException;
 
+	/**
+	 * @return true if {@link #loadArchive(Archive)} may be called from several threads at once
+	 */
+	default boolean isThreadSafe()
+	{
+		return false;
+	}
+
+	/**
+	 * Loads an archive from any thread, synchronizing on this storage unless it is thread safe
+	 */
+	default byte[] loadArchiveConcurrently(Archive archive) throws IOException
+	{
+		if (isThreadSafe())
+		{
+			return loadArchive(archive);
+		}
+
+		synchronized (this)
+		{
+			return loadArchive(archive);
+		}
+	}
+
 	void saveArchive(Archive archive, byte[] data) throws IOException;
 }
@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.flat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+
+/**
+ * A binary companion to {@link FlatStorage}, with one file per index which is
+ * memory mapped on load. Files are named by index id and generation, and each
+ * save of an index writes its next generation, so a file which is still mapped
+ * is never replaced. Older generations are deleted once they can be. Each file
+ * is laid out as:
+ * <ul>
+ * <li>a header: magic, version, then the index protocol, revision, compression,
+ * crc, named and archive count, as ints</li>
+ * <li>a table with a fixed width entry per archive, sorted by archive id: id,
+ * name hash, revision, crc, compression, file count, hash length and contents
+ * length as ints, then the offsets of the archive's metadata and contents as longs.
+ * Counts and lengths are -1 if the archive has no file data, hash or contents</li>
+ * <li>the metadata of each archive: its hash followed by the id and name hash of
+ * each of its files</li>
+ * <li>the contents of each archive</li>
+ * </ul>
+ * Ints and longs are big endian.
+ */
+public class BinaryFlatStorage implements Storage
+{
+	protected static final String EXTENSION = ".flatbin";
+
+	private static final int MAGIC = 0x464C_4154; // FLAT
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8 * 4;
+	private static final int ENTRY_SIZE = 8 * 4 + 2 * 8;
+
+	/**
+	 * Where the contents of an archive are in its mapped index file
+	 */
+	private static class Entry
+	{
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final int length;
+
+		private Entry(ByteBuffer buffer, int offset, int length)
+		{
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private final File directory;
+	// the current generation of each index file
+	private final Map<Integer, Integer> generations = new HashMap<>();
+	private final Map<Long, Entry> entries = new HashMap<>();
+	// archives saved since the index files were last written
+	private final Map<Long, byte[]> data = new HashMap<>();
+
+	public BinaryFlatStorage(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * Converts the text flat cache in one directory to a binary flat cache in another
+	 */
+	public static void fromFlatStorage(File flatDirectory, File binaryDirectory) throws IOException
+	{
+		try (Store store = new Store(new FlatStorage(flatDirectory)))
+		{
+			store.load();
+			new BinaryFlatStorage(binaryDirectory).save(store);
+		}
+	}
+
+	/**
+	 * Converts the binary flat cache in one directory to a text flat cache in another
+	 */
+	public static void toFlatStorage(File binaryDirectory, File flatDirectory) throws IOException
+	{
+		try (Store store = new Store(new BinaryFlatStorage(binaryDirectory)))
+		{
+			store.load();
+			new FlatStorage(flatDirectory).save(store);
+		}
+	}
+
+	@Override
+	public void init(Store store) throws IOException
+	{
+		generations.putAll(listGenerations());
+
+		for (Map.Entry<Integer, Integer> entry : generations.entrySet())
+		{
+			store.addIndex(entry.getKey());
+			deleteOldGenerations(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		// mappings are released when they are collected
+		entries.clear();
+		data.clear();
+	}
+
+	@Override
+	public void load(Store store) throws IOException
+	{
+		for (Index idx : store.getIndexes())
+		{
+			ByteBuffer buf = map(idx.getId());
+
+			idx.setProtocol(buf.getInt(8));
+			idx.setRevision(buf.getInt(12));
+			idx.setCompression(buf.getInt(16));
+			idx.setCrc(buf.getInt(20));
+			idx.setNamed(buf.getInt(24) != 0);
+
+			int count = buf.getInt(28);
+			for (int i = 0; i < count; ++i)
+			{
+				int pos = HEADER_SIZE + i * ENTRY_SIZE;
+
+				Archive archive = idx.addArchive(buf.getInt(pos));
+				archive.setNameHash(buf.getInt(pos + 4));
+				archive.setRevision(buf.getInt(pos + 8));
+				archive.setCrc(buf.getInt(pos + 12));
+				archive.setCompression(buf.getInt(pos + 16));
+
+				int fileCount = buf.getInt(pos + 20);
+				int hashLength = buf.getInt(pos + 24);
+				int meta = (int) buf.getLong(pos + 32);
+
+				if (hashLength >= 0)
+				{
+					byte[] hash = new byte[hashLength];
+					ByteBuffer b = buf.duplicate();
+					b.position(meta);
+					b.get(hash);
+					archive.setHash(hash);
+					meta += hashLength;
+				}
+
+				if (fileCount >= 0)
+				{
+					FileData[] fileData = new FileData[fileCount];
+					for (int j = 0; j < fileCount; ++j)
+					{
+						FileData fd = fileData[j] = new FileData();
+						fd.setId(buf.getInt(meta + j * 8));
+						fd.setNameHash(buf.getInt(meta + j * 8 + 4));
+					}
+					archive.setFileData(fileData);
+				}
+			}
+
+			addEntries(idx.getId(), buf);
+		}
+	}
+
+	@Override
+	public void save(Store store) throws IOException
+	{
+		List<Index> indexes = new ArrayList<>(store.getIndexes());
+		indexes.sort(Comparator.comparing(Index::getId));
+		for (Index idx : indexes)
+		{
+			save(store, idx);
+		}
+	}
+
+	private void save(Store store, Index idx) throws IOException
+	{
+		List<Archive> archives = new ArrayList<>(idx.getArchives());
+		archives.sort(Comparator.comparing(Archive::getArchiveId));
+
+		int metaSize = 0;
+		for (Archive archive : archives)
+		{
+			metaSize += archive.getHash() != null ? archive.getHash().length : 0;
+			metaSize += archive.getFileData() != null ? archive.getFileData().length * 8 : 0;
+		}
+
+		ByteBuffer table = ByteBuffer.allocate(HEADER_SIZE + archives.size() * ENTRY_SIZE + metaSize);
+		table.putInt(MAGIC);
+		table.putInt(VERSION);
+		table.putInt(idx.getProtocol());
+		table.putInt(idx.getRevision());
+		table.putInt(idx.getCompression());
+		table.putInt(idx.getCrc());
+		table.putInt(idx.isNamed() ? 1 : 0);
+		table.putInt(archives.size());
+
+		// the directory may have files this storage has not seen, if it was saved to without init
+		int generation = listGenerations().getOrDefault(idx.getId(), -1) + 1;
+		Path file = getFile(idx.getId(), generation).toPath();
+		Path tmp = new File(directory, idx.getId() + EXTENSION + ".tmp").toPath();
+
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			// contents are written after the table as they are read, so only one is held at a time
+			int meta = HEADER_SIZE + archives.size() * ENTRY_SIZE;
+			long offset = table.capacity();
+			channel.position(offset);
+
+			for (int i = 0; i < archives.size(); ++i)
+			{
+				Archive archive = archives.get(i);
+				byte[] hash = archive.getHash();
+				FileData[] fileData = archive.getFileData();
+				byte[] contents = store.getStorage().loadArchive(archive);
+
+				table.position(HEADER_SIZE + i * ENTRY_SIZE);
+				table.putInt(archive.getArchiveId());
+				table.putInt(archive.getNameHash());
+				table.putInt(archive.getRevision());
+				table.putInt(archive.getCrc());
+				table.putInt(archive.getCompression());
+				table.putInt(fileData != null ? fileData.length : -1);
+				table.putInt(hash != null ? hash.length : -1);
+				table.putInt(contents != null ? contents.length : -1);
+				table.putLong(meta);
+				table.putLong(offset);
+
+				table.position(meta);
+				if (hash != null)
+				{
+					table.put(hash);
+				}
+				if (fileData != null)
+				{
+					for (FileData fd : fileData)
+					{
+						table.putInt(fd.getId());
+						table.putInt(fd.getNameHash());
+					}
+				}
+				meta = table.position();
+
+				if (contents != null)
+				{
+					ByteBuffer b = ByteBuffer.wrap(contents);
+					while (b.hasRemaining())
+					{
+						channel.write(b);
+					}
+					offset += contents.length;
+				}
+			}
+
+			if (offset > Integer.MAX_VALUE)
+			{
+				throw new IOException("index " + idx.getId() + " is too large to map");
+			}
+
+			table.rewind();
+			long pos = 0;
+			while (table.hasRemaining())
+			{
+				pos += channel.write(table, pos);
+			}
+		}
+
+		// the previous generation may still be mapped, and mapped files can't be replaced on every platform
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		generations.put(idx.getId(), generation);
+
+		// the written file has everything which was saved to this index, read it from there
+		entries.keySet().removeIf(key -> (int) (key >>> 32) == idx.getId());
+		data.keySet().removeIf(key -> (int) (key >>> 32) == idx.getId());
+		addEntries(idx.getId(), map(idx.getId()));
+
+		deleteOldGenerations(idx.getId(), generation);
+	}
+
+	/**
+	 * Finds the newest generation of each index file in the directory
+	 */
+	private Map<Integer, Integer> listGenerations() throws IOException
+	{
+		String[] idxs = directory.list((dir, name) -> name.endsWith(EXTENSION));
+		if (idxs == null)
+		{
+			throw new IOException("unable to list " + directory);
+		}
+
+		Map<Integer, Integer> newest = new HashMap<>();
+		for (String idx : idxs)
+		{
+			String[] parts = idx.substring(0, idx.length() - EXTENSION.length()).split("\\.");
+			if (parts.length != 2)
+			{
+				throw new IOException("unexpected file " + idx + " in " + directory);
+			}
+
+			newest.merge(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Math::max);
+		}
+		return newest;
+	}
+
+	private File getFile(int id, int generation)
+	{
+		return new File(directory, id + "." + generation + EXTENSION);
+	}
+
+	/**
+	 * Deletes the generations of an index file before the given one. Those which
+	 * are still mapped can't be deleted on some platforms, and are left for a later save.
+	 */
+	private void deleteOldGenerations(int id, int generation)
+	{
+		for (int i = 0; i < generation; ++i)
+		{
+			try
+			{
+				Files.deleteIfExists(getFile(id, i).toPath());
+			}
+			catch (IOException ex)
+			{
+				// still mapped
+			}
+		}
+	}
+
+	private MappedByteBuffer map(int id) throws IOException
+	{
+		Integer generation = generations.get(id);
+		if (generation == null)
+		{
+			throw new IOException("index " + id + " has not been saved");
+		}
+
+		File file = getFile(id, generation);
+
+		MappedByteBuffer buf;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException(file + " is too large to map");
+			}
+
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buf.limit() < HEADER_SIZE || buf.getInt(0) != MAGIC)
+		{
+			throw new IOException(file + " is not a binary flatcache");
+		}
+
+		if (buf.getInt(4) != VERSION)
+		{
+			throw new IOException(file + " has unsupported version " + buf.getInt(4));
+		}
+
+		int count = buf.getInt(28);
+		if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > buf.limit())
+		{
+			throw new IOException(file + " is truncated");
+		}
+
+		for (int i = 0; i < count; ++i)
+		{
+			int pos = HEADER_SIZE + i * ENTRY_SIZE;
+			int fileCount = buf.getInt(pos + 20);
+			int hashLength = buf.getInt(pos + 24);
+			int length = buf.getInt(pos + 28);
+			long meta = buf.getLong(pos + 32);
+			long offset = buf.getLong(pos + 40);
+
+			if (fileCount < -1 || hashLength < -1 || length < -1)
+			{
+				throw new IOException(file + " has a bad entry for archive " + buf.getInt(pos));
+			}
+
+			long metaEnd = meta + Math.max(hashLength, 0) + Math.max(fileCount, 0) * 8L;
+			if (meta < 0 || metaEnd > buf.limit() || offset < 0 || offset + Math.max(length, 0) > buf.limit())
+			{
+				throw new IOException(file + " is truncated");
+			}
+		}
+
+		return buf;
+	}
+
+	private void addEntries(int id, ByteBuffer buf)
+	{
+		int count = buf.getInt(28);
+		for (int i = 0; i < count; ++i)
+		{
+			int pos = HEADER_SIZE + i * ENTRY_SIZE;
+			int length = buf.getInt(pos + 28);
+			if (length >= 0)
+			{
+				entries.put((long) id << 32 | buf.getInt(pos), new Entry(buf, (int) buf.getLong(pos + 40), length));
+			}
+		}
+	}
+
+	@Override
+	public byte[] loadArchive(Archive archive) throws IOException
+	{
+		long key = (long) archive.getIndex().getId() << 32 | archive.getArchiveId();
+
+		byte[] contents = data.get(key);
+		if (contents != null)
+		{
+			return contents;
+		}
+
+		ByteBuffer buf = loadArchiveBuffer(archive);
+		if (buf == null)
+		{
+			return null;
+		}
+
+		contents = new byte[buf.remaining()];
+		buf.get(contents);
+		return contents;
+	}
+
+	/**
+	 * Gets a read only view of the contents of an archive in the mapped index file,
+	 * without copying it. Archives saved since the index files were written are
+	 * only available from {@link #loadArchive(Archive)}.
+	 */
+	public ByteBuffer loadArchiveBuffer(Archive archive)
+	{
+		Entry entry = entries.get((long) archive.getIndex().getId() << 32 | archive.getArchiveId());
+		if (entry == null)
+		{
+			return null;
+		}
+
+		ByteBuffer buf = entry.buffer.duplicate();
+		buf.position(entry.offset);
+		buf.limit(entry.offset + entry.length);
+		return buf.slice().asReadOnlyBuffer();
+	}
+
+	@Override
+	public void saveArchive(Archive archive, byte[] bytes) throws IOException
+	{
+		data.put((long) archive.getIndex().getId() << 32 | archive.getArchiveId(), bytes);
+	}
+}
@@ -245,9 +245,12 @@ public class FlatStorage implements Storage
 					}
 
 					br.printf("compression=%d\n", archive.getCompression());
-					for (FileData fd : archive.getFileData())
+					if (archive.getFileData() != null)
 					{
-						br.printf("file=%d=%d\n", fd.getId(), fd.getNameHash());
+						for (FileData fd : archive.getFileData())
+						{
+							br.printf("file=%d=%d\n", fd.getId(), fd.getNameHash());
+						}
 					}
 				}
 			}
@@ -121,6 +121,11 @@ public class DiskStorage implements Storage
 		logger.trace("Loading index {}", index.getId());
 
 		byte[] indexData = readIndex(index.getId());
+		loadIndex(index, indexData);
+	}
+
+	static void loadIndex(Index index, byte[] indexData) throws IOException
+	{
 		Container res = Container.decompress(indexData, null);
 		byte[] data = res.data;
 
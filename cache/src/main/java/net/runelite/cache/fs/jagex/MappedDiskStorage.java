@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage for the jagex cache format which reads through memory mapped files instead of
+ * {@link java.io.RandomAccessFile}s, so archives can be read from many threads at once
+ * without locking. Writes go through a {@link DiskStorage}, after which the files are
+ * mapped again, and must not be made while other threads are reading.
+ */
+public class MappedDiskStorage implements Storage
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDiskStorage.class);
+
+	private static final String MAIN_FILE_CACHE_DAT = "main_file_cache.dat2";
+	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
+
+	private static final int SECTOR_SIZE = 520;
+	private static final int INDEX_ENTRY_LEN = 6;
+
+	/**
+	 * Largest multiple of the sector size which fits in a single buffer, so a sector never spans two chunks
+	 */
+	static final int CHUNK_SIZE = Integer.MAX_VALUE / SECTOR_SIZE * SECTOR_SIZE;
+
+	private static class Mapping
+	{
+		private final MappedFile data;
+		private final MappedFile index255;
+		private final Map<Integer, MappedFile> indexFiles = new ConcurrentHashMap<>();
+
+		private Mapping(MappedFile data, MappedFile index255)
+		{
+			this.data = data;
+			this.index255 = index255;
+		}
+	}
+
+	private final File folder;
+	private final int chunkSize;
+
+	private volatile Mapping mapping;
+	private DiskStorage writer;
+
+	public MappedDiskStorage(File folder)
+	{
+		this(folder, CHUNK_SIZE);
+	}
+
+	MappedDiskStorage(File folder, int chunkSize)
+	{
+		this.folder = folder;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public void init(Store store) throws IOException
+	{
+		int indexCount = (int) (getMapping().index255.length() / INDEX_ENTRY_LEN);
+		for (int i = 0; i < indexCount; ++i)
+		{
+			store.addIndex(i);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (writer != null)
+		{
+			writer.close();
+			writer = null;
+		}
+		mapping = null;
+	}
+
+	@Override
+	public void load(Store store) throws IOException
+	{
+		for (Index index : store.getIndexes())
+		{
+			logger.trace("Loading index {}", index.getId());
+
+			byte[] indexData = readIndex(index.getId());
+			if (indexData == null)
+			{
+				throw new IOException("unable to read index " + index.getId());
+			}
+
+			DiskStorage.loadIndex(index, indexData);
+		}
+	}
+
+	public byte[] readIndex(int indexId) throws IOException
+	{
+		Mapping mapping = getMapping();
+		return read(mapping.index255, mapping.data, 255, indexId);
+	}
+
+	@Override
+	public boolean isThreadSafe()
+	{
+		// reads go through the memory mapped files without locking
+		return true;
+	}
+
+	@Override
+	public byte[] loadArchive(Archive archive) throws IOException
+	{
+		Mapping mapping = getMapping();
+		int indexId = archive.getIndex().getId();
+		return read(getIndexFile(mapping, indexId), mapping.data, indexId, archive.getArchiveId());
+	}
+
+	@Override
+	public synchronized void save(Store store) throws IOException
+	{
+		getWriter().save(store);
+		mapping = null;
+	}
+
+	@Override
+	public synchronized void saveArchive(Archive archive, byte[] data) throws IOException
+	{
+		getWriter().saveArchive(archive, data);
+		mapping = null;
+	}
+
+	private DiskStorage getWriter() throws IOException
+	{
+		if (writer == null)
+		{
+			writer = new DiskStorage(folder);
+		}
+		return writer;
+	}
+
+	private Mapping getMapping() throws IOException
+	{
+		Mapping mapping = this.mapping;
+		if (mapping == null)
+		{
+			synchronized (this)
+			{
+				mapping = this.mapping;
+				if (mapping == null)
+				{
+					mapping = this.mapping = new Mapping(
+						new MappedFile(new File(folder, MAIN_FILE_CACHE_DAT), chunkSize),
+						new MappedFile(new File(folder, MAIN_FILE_CACHE_IDX + "255"), chunkSize));
+				}
+			}
+		}
+		return mapping;
+	}
+
+	private MappedFile getIndexFile(Mapping mapping, int indexId) throws IOException
+	{
+		try
+		{
+			return mapping.indexFiles.computeIfAbsent(indexId, id ->
+			{
+				try
+				{
+					return new MappedFile(new File(folder, MAIN_FILE_CACHE_IDX + id), chunkSize);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+			});
+		}
+		catch (UncheckedIOException ex)
+		{
+			throw ex.getCause();
+		}
+	}
+
+	/**
+	 * Read an archive by following its sector chain in the data file
+	 *
+	 * @return the archive data, or null if the index entry or sector chain is invalid
+	 */
+	private byte[] read(MappedFile indexFile, MappedFile data, int indexId, int archiveId)
+	{
+		long entryPosition = (long) archiveId * INDEX_ENTRY_LEN;
+		if (entryPosition + INDEX_ENTRY_LEN > indexFile.length())
+		{
+			logger.debug("can't read archive {} from index {}", archiveId, indexId);
+			return null;
+		}
+
+		int size = (indexFile.get(entryPosition) << 16) | (indexFile.get(entryPosition + 1) << 8) | indexFile.get(entryPosition + 2);
+		int sector = (indexFile.get(entryPosition + 3) << 16) | (indexFile.get(entryPosition + 4) << 8) | indexFile.get(entryPosition + 5);
+		if (size <= 0 || sector <= 0)
+		{
+			logger.debug("invalid length or sector {}/{}", size, sector);
+			return null;
+		}
+
+		long sectors = data.length() / SECTOR_SIZE;
+		if (sectors < sector)
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", data.length(), sector);
+			return null;
+		}
+
+		boolean largeArchive = archiveId > 0xFFFF;
+		int headerSize = largeArchive ? 10 : 8;
+		byte[] buffer = new byte[size];
+
+		for (int part = 0, readBytesCount = 0, nextSector; readBytesCount < size; sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return null;
+			}
+
+			long position = (long) sector * SECTOR_SIZE;
+			int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+			if (position + headerSize + dataBlockSize > data.length())
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return null;
+			}
+
+			int currentArchive;
+			int currentPart;
+			int currentIndex;
+			if (largeArchive)
+			{
+				currentArchive = (data.get(position) << 24) | (data.get(position + 1) << 16)
+					| (data.get(position + 2) << 8) | data.get(position + 3);
+				currentPart = (data.get(position + 4) << 8) | data.get(position + 5);
+				nextSector = (data.get(position + 6) << 16) | (data.get(position + 7) << 8) | data.get(position + 8);
+				currentIndex = data.get(position + 9);
+			}
+			else
+			{
+				currentArchive = (data.get(position) << 8) | data.get(position + 1);
+				currentPart = (data.get(position + 2) << 8) | data.get(position + 3);
+				nextSector = (data.get(position + 4) << 16) | (data.get(position + 5) << 8) | data.get(position + 6);
+				currentIndex = data.get(position + 7);
+			}
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return null;
+			}
+
+			if (sectors < nextSector)
+			{
+				logger.warn("Invalid next sector");
+				return null;
+			}
+
+			// copy straight from the mapping into the archive, without an intermediate sector buffer
+			data.get(position + headerSize, buffer, readBytesCount, dataBlockSize);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return buffer;
+	}
+}
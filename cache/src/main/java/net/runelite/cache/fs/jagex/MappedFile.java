@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read only file mapped into memory in chunks, so files larger than 2GB can be mapped.
+ * Reads are positional and may be made from any number of threads at once.
+ */
+class MappedFile
+{
+	private final int chunkSize;
+	private final long length;
+	private final MappedByteBuffer[] chunks;
+	/**
+	 * Per thread views of the chunks, since bulk reads need a buffer position
+	 */
+	private final ThreadLocal<ByteBuffer[]> views;
+
+	MappedFile(File file, int chunkSize) throws IOException
+	{
+		this.chunkSize = chunkSize;
+
+		if (!file.exists())
+		{
+			length = 0;
+			chunks = new MappedByteBuffer[0];
+		}
+		else
+		{
+			// the mappings stay valid after the channel is closed
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+			{
+				length = channel.size();
+				chunks = new MappedByteBuffer[(int) ((length + chunkSize - 1) / chunkSize)];
+				for (int i = 0; i < chunks.length; ++i)
+				{
+					long position = (long) i * chunkSize;
+					chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, length - position));
+				}
+			}
+		}
+
+		views = ThreadLocal.withInitial(() -> new ByteBuffer[chunks.length]);
+	}
+
+	long length()
+	{
+		return length;
+	}
+
+	int get(long position)
+	{
+		return chunks[(int) (position / chunkSize)].get((int) (position % chunkSize)) & 0xFF;
+	}
+
+	void get(long position, byte[] dst, int offset, int length)
+	{
+		final ByteBuffer[] views = this.views.get();
+		while (length > 0)
+		{
+			final int chunk = (int) (position / chunkSize);
+			final int chunkOffset = (int) (position % chunkSize);
+			final int count = Math.min(length, chunkSize - chunkOffset);
+
+			ByteBuffer view = views[chunk];
+			if (view == null)
+			{
+				view = views[chunk] = chunks[chunk].duplicate();
+			}
+
+			view.position(chunkOffset);
+			view.get(dst, offset, count);
+
+			position += count;
+			offset += count;
+			length -= count;
+		}
+	}
+}
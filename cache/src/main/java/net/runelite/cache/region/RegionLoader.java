@@ -25,9 +25,14 @@
 package net.runelite.cache.region;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.definitions.MapDefinition;
@@ -43,6 +48,15 @@ import org.slf4j.LoggerFactory;
 
 public class RegionLoader
 {
+	/**
+	 * Receives progress updates from {@link #loadRegions(ForkJoinPool, ProgressListener)}.
+	 * It is called from the worker threads, so implementations must be thread safe.
+	 */
+	public interface ProgressListener
+	{
+		void progress(int processed, int total);
+	}
+
 	private static final Logger logger = LoggerFactory.getLogger(RegionLoader.class);
 
 	private static final int MAX_REGION = 32768;
@@ -51,16 +65,27 @@ public class RegionLoader
 	private final Index index;
 	private final XteaKeyManager keyManager;
 
-	private final Map<Integer, Region> regions = new HashMap<>();
+	private final Map<Integer, Region> regions = new ConcurrentHashMap<>();
 	private Region lowestX = null, lowestY = null;
 	private Region highestX = null, highestY = null;
 
 	public RegionLoader(Store store)
+	{
+		this(store, loadKeys());
+	}
+
+	public RegionLoader(Store store, XteaKeyManager keyManager)
 	{
 		this.store = store;
-		index = store.getIndex(IndexType.MAPS);
-		keyManager = new XteaKeyManager();
+		this.index = store.getIndex(IndexType.MAPS);
+		this.keyManager = keyManager;
+	}
+
+	private static XteaKeyManager loadKeys()
+	{
+		XteaKeyManager keyManager = new XteaKeyManager();
 		keyManager.loadKeys();
+		return keyManager;
 	}
 
 	public void loadRegions() throws IOException
@@ -70,8 +95,65 @@ public class RegionLoader
 			Region region = this.loadRegionFromArchive(i);
 			if (region != null)
 			{
-				regions.put(i, region);
+				addRegion(region);
+			}
+		}
+	}
+
+	/**
+	 * Loads the regions on the given pool. The result, including the bounds,
+	 * is the same as {@link #loadRegions()}.
+	 */
+	public void loadRegions(ForkJoinPool pool, ProgressListener listener) throws IOException
+	{
+		// the index builds its name lookup lazily, make sure that happens before the workers start
+		index.findArchiveByName("m0_0");
+
+		AtomicInteger processed = new AtomicInteger();
+
+		try
+		{
+			pool.submit(() -> IntStream.range(0, MAX_REGION).parallel().forEach(i ->
+			{
+				Region region;
+				try
+				{
+					region = loadRegionFromArchive(i);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+
+				if (region != null)
+				{
+					addRegion(region);
+				}
+
+				int done = processed.incrementAndGet();
+				if (listener != null)
+				{
+					listener.progress(done, MAX_REGION);
+				}
+			})).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted loading regions", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
 			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
 		}
 	}
 
@@ -91,7 +173,7 @@ public class RegionLoader
 			return null;
 		}
 
-		byte[] data = map.decompress(storage.loadArchive(map));
+		byte[] data = map.decompress(storage.loadArchiveConcurrently(map));
 
 		MapDefinition mapDef = new MapLoader().load(x, y, data);
 
@@ -103,7 +185,7 @@ public class RegionLoader
 		{
 			try
 			{
-				data = land.decompress(storage.loadArchive(land), keys);
+				data = land.decompress(storage.loadArchiveConcurrently(land), keys);
 				LocationsDefinition locDef = new LocationsLoader().load(x, y, data);
 				region.loadLocations(locDef);
 			}
@@ -116,29 +198,51 @@ public class RegionLoader
 		return region;
 	}
 
-	public void calculateBounds()
+
+	private synchronized void addRegion(Region region)
 	{
+		regions.put(region.getRegionID(), region);
+		updateBounds(region);
+	}
+
+	/**
+	 * Bounds are kept up to date as regions are added, this recomputes them
+	 * from scratch.
+	 */
+	public synchronized void calculateBounds()
+	{
+		lowestX = lowestY = highestX = highestY = null;
 		for (Region region : regions.values())
 		{
-			if (lowestX == null || region.getBaseX() < lowestX.getBaseX())
-			{
-				lowestX = region;
-			}
+			updateBounds(region);
+		}
+	}
 
-			if (highestX == null || region.getBaseX() > highestX.getBaseX())
-			{
-				highestX = region;
-			}
+	private void updateBounds(Region region)
+	{
+		// ties go to the lowest region id so the bounds don't depend on load order
+		if (lowestX == null || region.getBaseX() < lowestX.getBaseX()
+			|| (region.getBaseX() == lowestX.getBaseX() && region.getRegionID() < lowestX.getRegionID()))
+		{
+			lowestX = region;
+		}
 
-			if (lowestY == null || region.getBaseY() < lowestY.getBaseY())
-			{
-				lowestY = region;
-			}
+		if (highestX == null || region.getBaseX() > highestX.getBaseX()
+			|| (region.getBaseX() == highestX.getBaseX() && region.getRegionID() < highestX.getRegionID()))
+		{
+			highestX = region;
+		}
 
-			if (highestY == null || region.getBaseY() > highestY.getBaseY())
-			{
-				highestY = region;
-			}
+		if (lowestY == null || region.getBaseY() < lowestY.getBaseY()
+			|| (region.getBaseY() == lowestY.getBaseY() && region.getRegionID() < lowestY.getRegionID()))
+		{
+			lowestY = region;
+		}
+
+		if (highestY == null || region.getBaseY() > highestY.getBaseY()
+			|| (region.getBaseY() == highestY.getBaseY() && region.getRegionID() < highestY.getRegionID()))
+		{
+			highestY = region;
 		}
 	}
 
@@ -29,6 +29,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
@@ -47,6 +49,53 @@ public class BZip2
 		'1'       // block size
 	};
 
+	// the data after the header starts with either a block or the end of the stream
+	private static final long BLOCK_MAGIC = 0x314159265359L;
+	private static final long EOS_MAGIC = 0x177245385090L;
+
+	/**
+	 * Reads a buffer from its position to its limit, without copying it
+	 */
+	private static class ByteBufferInputStream extends InputStream
+	{
+		private final ByteBuffer buf;
+
+		private ByteBufferInputStream(ByteBuffer buf)
+		{
+			this.buf = buf;
+		}
+
+		@Override
+		public int read()
+		{
+			return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+		{
+			if (len == 0)
+			{
+				return 0;
+			}
+
+			if (!buf.hasRemaining())
+			{
+				return -1;
+			}
+
+			len = Math.min(len, buf.remaining());
+			buf.get(b, off, len);
+			return len;
+		}
+
+		@Override
+		public int available()
+		{
+			return buf.remaining();
+		}
+	}
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -83,4 +132,44 @@ public class BZip2
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompresses the headerless bzip2 data from the position to the limit of buf,
+	 * which must decompress to exactly len bytes. The position of buf is not changed.
+	 */
+	public static byte[] decompress(ByteBuffer buf, int len) throws IOException
+	{
+		ByteBuffer in = buf.slice();
+
+		// check this before allocating the output, as len is garbage if the data is
+		if (in.remaining() < 6)
+		{
+			throw new IOException("Truncated bzip2 data");
+		}
+
+		long magic = (in.getInt(0) & 0xFFFFFFFFL) << 16 | (in.getShort(4) & 0xFFFFL);
+		if (magic != BLOCK_MAGIC && magic != EOS_MAGIC)
+		{
+			throw new IOException("Not bzip2 data");
+		}
+
+		byte[] out = new byte[len];
+		InputStream data = new SequenceInputStream(new ByteArrayInputStream(BZIP_HEADER), new ByteBufferInputStream(in));
+
+		try (InputStream is = new BZip2CompressorInputStream(data))
+		{
+			int read = IOUtils.readFully(is, out);
+			if (read != len)
+			{
+				throw new IOException("Unexpected end of bzip2 data, expected " + len + " bytes but was " + read);
+			}
+
+			if (is.read() != -1)
+			{
+				throw new IOException("bzip2 data is longer than " + len + " bytes");
+			}
+		}
+
+		return out;
+	}
 }
@@ -30,8 +30,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 import org.apache.commons.compress.utils.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +45,24 @@ public class GZip
 {
 	private static final Logger logger = LoggerFactory.getLogger(GZip.class);
 
+	private static final int GZIP_MAGIC = 0x8B1F;
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	/**
+	 * Per thread inflater, and an input buffer for data which isn't backed by an array
+	 */
+	private static class InflaterState
+	{
+		private final Inflater inflater = new Inflater(true);
+		private byte[] input = new byte[0];
+		private final byte[] probe = new byte[1];
+	}
+
+	private static final ThreadLocal<InflaterState> inflaterState = ThreadLocal.withInitial(InflaterState::new);
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -64,4 +87,119 @@ public class GZip
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompresses the gzip data from the position to the limit of buf, which must
+	 * decompress to exactly len bytes. The position of buf is not changed.
+	 */
+	public static byte[] decompress(ByteBuffer buf, int len) throws IOException
+	{
+		ByteBuffer in = buf.slice();
+		try
+		{
+			skipHeader(in);
+		}
+		catch (BufferUnderflowException | IllegalArgumentException ex)
+		{
+			throw new ZipException("Truncated gzip header");
+		}
+
+		InflaterState state = inflaterState.get();
+		Inflater inflater = state.inflater;
+		inflater.reset();
+
+		if (in.hasArray())
+		{
+			inflater.setInput(in.array(), in.arrayOffset() + in.position(), in.remaining());
+		}
+		else
+		{
+			int remaining = in.remaining();
+			if (state.input.length < remaining)
+			{
+				state.input = new byte[remaining];
+			}
+			in.get(state.input, 0, remaining);
+			inflater.setInput(state.input, 0, remaining);
+		}
+
+		byte[] out = new byte[len];
+		try
+		{
+			int read = 0;
+			while (read < len)
+			{
+				int n = inflater.inflate(out, read, len - read);
+				if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+				{
+					throw new ZipException("Unexpected end of gzip data, expected " + len + " bytes but was " + read);
+				}
+				read += n;
+			}
+
+			if (!inflater.finished() && inflater.inflate(state.probe) > 0)
+			{
+				throw new ZipException("gzip data is longer than " + len + " bytes");
+			}
+		}
+		catch (DataFormatException ex)
+		{
+			throw new ZipException(ex.getMessage());
+		}
+
+		return out;
+	}
+
+	private static void skipHeader(ByteBuffer in) throws IOException
+	{
+		if (in.remaining() < 10)
+		{
+			throw new ZipException("Not in GZIP format");
+		}
+
+		int magic = (in.get() & 0xFF) | (in.get() & 0xFF) << 8;
+		if (magic != GZIP_MAGIC)
+		{
+			throw new ZipException("Not in GZIP format");
+		}
+
+		if (in.get() != 8)
+		{
+			throw new ZipException("Unsupported compression method");
+		}
+
+		int flags = in.get() & 0xFF;
+		in.position(in.position() + 6); // mtime, extra flags, os
+
+		if ((flags & FEXTRA) != 0)
+		{
+			int length = (in.get() & 0xFF) | (in.get() & 0xFF) << 8;
+			in.position(in.position() + length);
+		}
+
+		if ((flags & FNAME) != 0)
+		{
+			skipString(in);
+		}
+
+		if ((flags & FCOMMENT) != 0)
+		{
+			skipString(in);
+		}
+
+		if ((flags & FHCRC) != 0)
+		{
+			in.position(in.position() + 2);
+		}
+	}
+
+	private static void skipString(ByteBuffer in)
+	{
+		byte b;
+		do
+		{
+			b = in.get();
+		}
+		while (b != 0);
+	}
 }
@@ -26,6 +26,7 @@ package net.runelite.cache.util;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
 
 public class Xtea
 {
@@ -85,4 +86,30 @@ public class Xtea
 		out.writeBytes(buf);
 		return out.array();
 	}
+
+	/**
+	 * Decrypts len bytes of buf starting at offset, in place. As with
+	 * {@link #decrypt(byte[], int)}, trailing bytes which don't fill a block
+	 * are left as they are. The position of buf is not changed.
+	 */
+	public void decrypt(ByteBuffer buf, int offset, int len)
+	{
+		ByteBuffer b = buf.duplicate(); // big endian, regardless of buf
+		int numBlocks = len / 8;
+		for (int block = 0; block < numBlocks; ++block)
+		{
+			int pos = offset + block * 8;
+			int v0 = b.getInt(pos);
+			int v1 = b.getInt(pos + 4);
+			int sum = GOLDEN_RATIO * ROUNDS;
+			for (int i = 0; i < ROUNDS; ++i)
+			{
+				v1 -= (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
+				sum -= GOLDEN_RATIO;
+				v0 -= (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
+			}
+			b.putInt(pos, v0);
+			b.putInt(pos + 4, v1);
+		}
+	}
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.verify;
+
+import com.google.common.primitives.Ints;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.util.Crc32;
+import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.XteaKeyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads every archive of a store and checks it against its index. The crc and
+ * revision are checked for all archives, and archives are decompressed to check
+ * their contents. Encrypted map archives are only decompressed if there are keys
+ * for their region.
+ */
+public class CacheVerifier
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheVerifier.class);
+
+	private static final int MAX_REGION = 32768;
+
+	private final Store store;
+	private final XteaKeyManager keyManager;
+
+	// name hash of each land archive to its region
+	private final Map<Integer, Integer> landArchives = new HashMap<>();
+
+	private final LongAdder verified = new LongAdder();
+	private final LongAdder encrypted = new LongAdder();
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder bytesDecompressed = new LongAdder();
+	private final LongAdder readNanos = new LongAdder();
+	private final LongAdder decompressNanos = new LongAdder();
+	private final ConcurrentLinkedQueue<VerificationError> errors = new ConcurrentLinkedQueue<>();
+
+	public CacheVerifier(Store store)
+	{
+		this(store, null);
+	}
+
+	/**
+	 * @param keyManager keys to decrypt map archives with, or null to only crc check them
+	 */
+	public CacheVerifier(Store store, XteaKeyManager keyManager)
+	{
+		this.store = store;
+		this.keyManager = keyManager;
+
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			landArchives.put(Djb2.hash("l" + (i >> 8) + "_" + (i & 0xFF)), i);
+		}
+	}
+
+	public synchronized VerificationReport verify(ForkJoinPool pool) throws IOException
+	{
+		verified.reset();
+		encrypted.reset();
+		bytesRead.reset();
+		bytesDecompressed.reset();
+		readNanos.reset();
+		decompressNanos.reset();
+		errors.clear();
+
+		long start = System.nanoTime();
+
+		List<Archive> archives = new ArrayList<>();
+		for (Index index : store.getIndexes())
+		{
+			archives.addAll(index.getArchives());
+		}
+
+		try
+		{
+			pool.submit(() -> archives.parallelStream().forEach(this::verify)).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted verifying cache", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+
+		VerificationReport report = new VerificationReport();
+		report.setIndexes(store.getIndexes().size());
+		report.setArchives(archives.size());
+		report.setVerified(verified.intValue());
+		report.setEncrypted(encrypted.intValue());
+		report.setBytesRead(bytesRead.sum());
+		report.setBytesDecompressed(bytesDecompressed.sum());
+		report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		report.setReadMillis(TimeUnit.NANOSECONDS.toMillis(readNanos.sum()));
+		report.setDecompressMillis(TimeUnit.NANOSECONDS.toMillis(decompressNanos.sum()));
+
+		List<VerificationError> sorted = new ArrayList<>(errors);
+		sorted.sort(Comparator.comparingInt(VerificationError::getIndex)
+			.thenComparingInt(VerificationError::getArchive)
+			.thenComparing(VerificationError::getType));
+		report.setErrors(sorted);
+
+		logger.info("Verified {} archives in {} indexes in {}ms, {} errors, {} encrypted archives without keys",
+			report.getArchives(), report.getIndexes(), report.getElapsedMillis(), sorted.size(), report.getEncrypted());
+
+		return report;
+	}
+
+	private void verify(Archive archive)
+	{
+		Storage storage = store.getStorage();
+
+		byte[] data;
+		long start = System.nanoTime();
+		try
+		{
+			data = storage.loadArchiveConcurrently(archive);
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			error(archive, VerificationErrorType.CORRUPT, "unable to read archive: " + ex);
+			return;
+		}
+		finally
+		{
+			readNanos.add(System.nanoTime() - start);
+		}
+
+		if (data == null)
+		{
+			error(archive, VerificationErrorType.MISSING, "no data for archive");
+			return;
+		}
+
+		bytesRead.add(data.length);
+
+		if (data.length < 5)
+		{
+			error(archive, VerificationErrorType.TRUNCATED, "archive is only " + data.length + " bytes");
+			return;
+		}
+
+		// crc the container the same way the index does, compression + length + data, without the revision
+		int compression = data[0] & 0xFF;
+		int compressedLength = Ints.fromBytes(data[1], data[2], data[3], data[4]);
+		long length = 5L + compressedLength + (compression != CompressionType.NONE ? 4 : 0);
+		if (compressedLength < 0 || length > data.length)
+		{
+			error(archive, VerificationErrorType.TRUNCATED, "container is " + length + " bytes but archive is " + data.length);
+			return;
+		}
+
+		Crc32 crc32 = new Crc32();
+		crc32.update(data, 0, (int) length);
+		if (crc32.getHash() != archive.getCrc())
+		{
+			error(archive, VerificationErrorType.CRC_MISMATCH, "expected crc " + archive.getCrc() + " but was " + crc32.getHash());
+			return;
+		}
+
+		boolean valid = true;
+		if (data.length - length >= 2)
+		{
+			int revision = (data[(int) length] & 0xFF) << 8 | (data[(int) length + 1] & 0xFF);
+			if (revision != (archive.getRevision() & 0xFFFF))
+			{
+				error(archive, VerificationErrorType.REVISION_MISMATCH, "expected revision " + archive.getRevision() + " but was " + revision);
+				valid = false;
+			}
+		}
+
+		int[] keys = null;
+		Integer region = archive.getIndex().getId() == IndexType.MAPS.getNumber() ? landArchives.get(archive.getNameHash()) : null;
+		if (region != null)
+		{
+			keys = keyManager != null ? keyManager.getKeys(region) : null;
+			if (keys == null)
+			{
+				encrypted.increment();
+				return;
+			}
+		}
+
+		start = System.nanoTime();
+		try
+		{
+			Container container = Container.decompress(data, keys);
+			bytesDecompressed.add(container.data.length);
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			error(archive, keys != null ? VerificationErrorType.BAD_KEYS : VerificationErrorType.CORRUPT,
+				"unable to decompress archive: " + ex);
+			return;
+		}
+		finally
+		{
+			decompressNanos.add(System.nanoTime() - start);
+		}
+
+		if (valid)
+		{
+			verified.increment();
+		}
+	}
+
+	private void error(Archive archive, VerificationErrorType type, String message)
+	{
+		logger.debug("Archive {}/{}: {} {}", archive.getIndex().getId(), archive.getArchiveId(), type, message);
+		errors.add(new VerificationError(archive.getIndex().getId(), archive.getArchiveId(), type, message));
+	}
+
+}
@@ -27,10 +27,28 @@ package net.runelite.cache;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import javax.imageio.ImageIO;
+import net.runelite.cache.definitions.LocationsDefinition;
+import net.runelite.cache.definitions.savers.LocationSaver;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.io.OutputStream;
+import net.runelite.cache.region.Location;
+import net.runelite.cache.region.Position;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
+import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.XteaKeyManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,6 +60,10 @@ public class MapImageDumperTest
 {
 	private static final Logger logger = LoggerFactory.getLogger(MapImageDumperTest.class);
 
+	private static final int TILE_SIZE = Region.X * 4;
+	private static final int ICON_COLOR = 0xFF0000;
+	private static final int[] UNDERLAY_COLORS = {0x336633, 0x997744, 0x224488, 0x777777, 0x558833};
+
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
@@ -71,6 +93,94 @@ public class MapImageDumperTest
 		}
 	}
 
+	@Test
+	@Ignore
+	public void dumpMapTiles() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.load();
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				File planeDir = new File(outDir, Integer.toString(i));
+				int maxZoom = dumper.drawMapTiles(i, planeDir, ForkJoinPool.commonPool());
+				logger.info("Wrote tiles {} with zoom levels 0-{}", planeDir, maxZoom);
+			}
+		}
+	}
+
+	@Test
+	public void testDrawMapTiles() throws IOException
+	{
+		File base = folder.newFolder(),
+			outDir = folder.newFolder();
+
+		// every region is encrypted with the same keys, so nothing needs downloading
+		int[] keys = {1, 2, 3, 4};
+		XteaKeyManager keyManager = new XteaKeyManager()
+		{
+			@Override
+			public int[] getKeys(int region)
+			{
+				return keys;
+			}
+		};
+
+		try (Store store = new Store(base))
+		{
+			createStore(store, keys);
+
+			MapImageDumper dumper = new MapImageDumper(store, keyManager);
+			dumper.load();
+
+			BufferedImage map = dumper.drawMap(0);
+			int maxZoom = dumper.drawMapTiles(0, outDir, new ForkJoinPool(2));
+			assertEquals(2, maxZoom);
+
+			// regions 48-51 x 48-50, without 50_49
+			for (int regionX = 48; regionX < 52; ++regionX)
+			{
+				for (int regionY = 48; regionY < 51; ++regionY)
+				{
+					File tileFile = tileFile(outDir, maxZoom, regionX - 48, 50 - regionY);
+					if (regionX == 50 && regionY == 49)
+					{
+						assertFalse(tileFile.exists());
+						continue;
+					}
+
+					BufferedImage tile = ImageIO.read(tileFile);
+					int offX = (regionX - 48) * TILE_SIZE;
+					int offY = (50 - regionY) * TILE_SIZE;
+					for (int y = 0; y < TILE_SIZE; ++y)
+					{
+						for (int x = 0; x < TILE_SIZE; ++x)
+						{
+							assertEquals(map.getRGB(offX + x, offY + y) & 0xFFFFFF, tile.getRGB(x, y) & 0xFFFFFF);
+						}
+					}
+				}
+			}
+
+			// the icon in the corner of 48_49 is drawn over the regions east and south of it too
+			assertEquals(ICON_COLOR, ImageIO.read(tileFile(outDir, maxZoom, 1, 1)).getRGB(0, TILE_SIZE - 1) & 0xFFFFFF);
+			assertEquals(ICON_COLOR, ImageIO.read(tileFile(outDir, maxZoom, 0, 2)).getRGB(TILE_SIZE - 1, 0) & 0xFFFFFF);
+			assertEquals(ICON_COLOR, ImageIO.read(tileFile(outDir, maxZoom, 1, 2)).getRGB(0, 0) & 0xFFFFFF);
+
+			// 1/1 has children at 2/2 and 3/2 only
+			assertDownsampled(outDir, 1, 1, 1);
+			assertDownsampled(outDir, 1, 0, 0);
+			assertDownsampled(outDir, 0, 0, 0);
+		}
+	}
+
 	@Test
 	@Ignore
 	public void dumpRegions() throws Exception
@@ -97,4 +207,145 @@ public class MapImageDumperTest
 			}
 		}
 	}
+
+	/**
+	 * Creates a store with a block of regions with random ground and a map icon in the corner of one
+	 */
+	private static void createStore(Store store, int[] keys) throws IOException
+	{
+		Index configs = store.addIndex(IndexType.CONFIGS.getNumber());
+
+		byte[][] underlays = new byte[UNDERLAY_COLORS.length][];
+		for (int i = 0; i < underlays.length; ++i)
+		{
+			int color = UNDERLAY_COLORS[i];
+			underlays[i] = new byte[]{1, (byte) (color >> 16), (byte) (color >> 8), (byte) color, 0};
+		}
+		addArchive(store, configs, ConfigType.UNDERLAY.getId(), null, underlays);
+		addArchive(store, configs, ConfigType.OVERLAY.getId(), null, new byte[]{0});
+		// object 0 shows map area 0, which shows sprite 0
+		addArchive(store, configs, ConfigType.OBJECT.getId(), null, new byte[]{82, 0, 0, 0});
+		addArchive(store, configs, ConfigType.AREA.getId(), null, new byte[]{1, 0, 0, 0});
+
+		Index textures = store.addIndex(IndexType.TEXTURES.getNumber());
+		addArchive(store, textures, 0, null, new byte[6]);
+
+		Index sprites = store.addIndex(IndexType.SPRITES.getNumber());
+		addArchive(store, sprites, 0, null, sprite(7, 7, ICON_COLOR));
+
+		Index maps = store.addIndex(IndexType.MAPS.getNumber());
+		Random random = new Random(42L);
+		int archiveId = 0;
+		for (int regionX = 48; regionX < 52; ++regionX)
+		{
+			for (int regionY = 48; regionY < 51; ++regionY)
+			{
+				if (regionX == 50 && regionY == 49)
+				{
+					continue;
+				}
+
+				// an underlay and a height for each tile
+				byte[] map = new byte[Region.Z * Region.X * Region.Y * 3];
+				for (int i = 0; i < map.length; i += 3)
+				{
+					map[i] = (byte) (82 + random.nextInt(UNDERLAY_COLORS.length));
+					map[i + 1] = 1;
+				}
+				addArchive(store, maps, archiveId++, null, map).setNameHash(Djb2.hash("m" + regionX + "_" + regionY));
+
+				LocationsDefinition locations = new LocationsDefinition();
+				if (regionX == 48 && regionY == 49)
+				{
+					locations.getLocations().add(new Location(0, 10, 0, new Position(Region.X - 1, 0, 0)));
+				}
+				addArchive(store, maps, archiveId++, keys, new LocationSaver().save(locations))
+					.setNameHash(Djb2.hash("l" + regionX + "_" + regionY));
+			}
+		}
+	}
+
+	private static Archive addArchive(Store store, Index index, int archiveId, int[] keys, byte[]... contents) throws IOException
+	{
+		Archive archive = index.addArchive(archiveId);
+		ArchiveFiles files = new ArchiveFiles();
+		FileData[] fileData = new FileData[contents.length];
+		for (int i = 0; i < contents.length; ++i)
+		{
+			FSFile file = new FSFile(i);
+			file.setContents(contents[i]);
+			files.addFile(file);
+
+			fileData[i] = new FileData();
+			fileData[i].setId(i);
+		}
+		archive.setFileData(fileData);
+
+		Container container = new Container(CompressionType.GZ, -1);
+		container.compress(files.saveContents(), keys);
+		store.getStorage().saveArchive(archive, container.data);
+		return archive;
+	}
+
+	/**
+	 * Encodes a single sprite of one color
+	 */
+	private static byte[] sprite(int width, int height, int color)
+	{
+		OutputStream out = new OutputStream();
+		out.writeByte(0); // flags
+		for (int i = 0; i < width * height; ++i)
+		{
+			out.writeByte(1); // palette index
+		}
+		out.write24BitInt(color);
+		out.writeShort(width);
+		out.writeShort(height);
+		out.writeByte(1); // palette length - 1
+		out.writeShort(0); // offset x
+		out.writeShort(0); // offset y
+		out.writeShort(width);
+		out.writeShort(height);
+		out.writeShort(1); // sprite count
+		return out.flip();
+	}
+
+	private static File tileFile(File outDir, int zoom, int tileX, int tileY)
+	{
+		return new File(outDir, zoom + File.separator + tileX + File.separator + tileY + ".png");
+	}
+
+	/**
+	 * Checks each pixel of a tile is the average of the 2x2 block of its child tile, or black without one
+	 */
+	private static void assertDownsampled(File outDir, int zoom, int tileX, int tileY) throws IOException
+	{
+		BufferedImage tile = ImageIO.read(tileFile(outDir, zoom, tileX, tileY));
+		int half = TILE_SIZE / 2;
+
+		for (int i = 0; i < 4; ++i)
+		{
+			File childFile = tileFile(outDir, zoom + 1, tileX * 2 + (i & 1), tileY * 2 + (i >> 1));
+			BufferedImage child = childFile.exists() ? ImageIO.read(childFile) : null;
+
+			for (int y = 0; y < half; ++y)
+			{
+				for (int x = 0; x < half; ++x)
+				{
+					int expected = 0;
+					if (child != null)
+					{
+						for (int shift = 0; shift < 24; shift += 8)
+						{
+							int sum = (child.getRGB(x * 2, y * 2) >> shift & 0xFF) + (child.getRGB(x * 2 + 1, y * 2) >> shift & 0xFF)
+								+ (child.getRGB(x * 2, y * 2 + 1) >> shift & 0xFF) + (child.getRGB(x * 2 + 1, y * 2 + 1) >> shift & 0xFF);
+							expected |= sum / 4 << shift;
+						}
+					}
+
+					assertEquals(expected, tile.getRGB((i & 1) * half + x, (i >> 1) * half + y) & 0xFFFFFF);
+				}
+			}
+		}
+	}
 }
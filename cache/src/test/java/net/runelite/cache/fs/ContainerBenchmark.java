@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import com.google.common.primitives.Ints;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.util.BZip2;
+import net.runelite.cache.util.GZip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Decompresses every unencrypted archive of the test cache with the stream based
+ * decompression {@link Container} used to do, and with the array and buffer apis.
+ * Run with {@link #main(String[])} from the IDE after test-compile, the gc profiler
+ * reports the allocation rate of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerBenchmark
+{
+	private final List<byte[]> archives = new ArrayList<>();
+
+	@Setup
+	public void setup() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Storage storage = store.getStorage();
+			for (Index index : store.getIndexes())
+			{
+				for (Archive archive : index.getArchives())
+				{
+					byte[] data = storage.loadArchive(archive);
+					if (data == null)
+					{
+						continue;
+					}
+
+					try
+					{
+						Container.decompress(data, null);
+						archives.add(data);
+					}
+					catch (IOException ex)
+					{
+						// encrypted
+					}
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public long streams() throws IOException
+	{
+		long total = 0;
+		for (byte[] data : archives)
+		{
+			total += copyingDecompress(data).length;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long arrays() throws IOException
+	{
+		long total = 0;
+		for (byte[] data : archives)
+		{
+			total += Container.decompress(data, null).data.length;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long buffers() throws IOException
+	{
+		long total = 0;
+		for (byte[] data : archives)
+		{
+			total += Container.decompress(ByteBuffer.wrap(data), null).data.length;
+		}
+		return total;
+	}
+
+	/**
+	 * Makes the same copies the stream based decompression did, without the crc and revision
+	 */
+	private static byte[] copyingDecompress(byte[] b) throws IOException
+	{
+		int compression = b[0];
+		int compressedLength = Ints.fromBytes(b[1], b[2], b[3], b[4]);
+
+		if (compression == CompressionType.NONE)
+		{
+			return Arrays.copyOfRange(b, 5, 5 + compressedLength);
+		}
+
+		byte[] encryptedData = Arrays.copyOfRange(b, 5, 9 + compressedLength);
+		byte[] remaining = Arrays.copyOfRange(encryptedData, 4, encryptedData.length);
+
+		return compression == CompressionType.BZ2
+			? BZip2.decompress(remaining, compressedLength)
+			: GZip.decompress(remaining, compressedLength);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ContainerBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+}
@@ -25,9 +25,13 @@
 package net.runelite.cache.fs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Random;
+import static net.runelite.cache.fs.jagex.CompressionType.BZ2;
 import static net.runelite.cache.fs.jagex.CompressionType.GZ;
+import static net.runelite.cache.fs.jagex.CompressionType.NONE;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 public class ContainerTest
@@ -52,4 +56,64 @@ public class ContainerTest
 		assertArrayEquals(data, container.data);
 	}
 
+	@Test
+	public void testDecompressBuffer() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		Random random = new Random(42L);
+		byte[] data = new byte[1024];
+		random.nextBytes(data);
+
+		for (int compression : new int[]{NONE, BZ2, GZ})
+		{
+			Container container = new Container(compression, 7);
+			container.compress(data, keys);
+			byte[] compressedData = container.data;
+			byte[] copy = compressedData.clone();
+
+			// the array api leaves the caller's data encrypted
+			Container fromArray = Container.decompress(compressedData, keys);
+			assertArrayEquals(copy, compressedData);
+
+			// a direct buffer in the middle of other data
+			ByteBuffer buf = ByteBuffer.allocateDirect(compressedData.length + 16);
+			buf.position(8);
+			buf.put(compressedData);
+			buf.position(8).limit(8 + compressedData.length);
+			Container fromBuffer = Container.decompress(buf, keys);
+			assertEquals(8, buf.position());
+
+			assertArrayEquals(data, fromArray.data);
+			assertArrayEquals(data, fromBuffer.data);
+			assertEquals(7, fromBuffer.revision);
+			assertEquals(fromArray.crc, fromBuffer.crc);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongKeysGzip() throws IOException
+	{
+		testWrongKeys(GZ);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongKeysBzip2() throws IOException
+	{
+		testWrongKeys(BZ2);
+	}
+
+	private static void testWrongKeys(int compression) throws IOException
+	{
+		byte[] data = new byte[1024];
+		new Random(42L).nextBytes(data);
+
+		Container container = new Container(compression, -1);
+		container.compress(data, new int[]{4, 8, 15, 16});
+
+		Container.decompress(container.data, new int[]{1, 2, 3, 4});
+	}
+
 }
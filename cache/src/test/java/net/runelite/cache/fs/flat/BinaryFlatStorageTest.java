@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.flat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryFlatStorageTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testConvert() throws IOException
+	{
+		File flat = folder.newFolder();
+		File binary = folder.newFolder();
+		File flat2 = folder.newFolder();
+		Random random = new Random(42L);
+
+		try (Store store = new Store(new FlatStorage(flat)))
+		{
+			for (int i = 0; i < 3; ++i)
+			{
+				Index index = store.addIndex(i);
+				index.setRevision(100 + i);
+				index.setCrc(random.nextInt());
+
+				for (int j = 0; j < 50; ++j)
+				{
+					Archive archive = index.addArchive(j * 3);
+					archive.setNameHash(random.nextInt());
+					archive.setRevision(random.nextInt(1000));
+					archive.setCompression(CompressionType.GZ);
+					if (j % 5 == 0)
+					{
+						byte[] hash = new byte[32];
+						random.nextBytes(hash);
+						archive.setHash(hash);
+					}
+
+					FileData[] fileData = new FileData[j % 4];
+					for (int k = 0; k < fileData.length; ++k)
+					{
+						fileData[k] = new FileData();
+						fileData[k].setId(k);
+						fileData[k].setNameHash(random.nextInt());
+					}
+					archive.setFileData(fileData);
+
+					byte[] data = new byte[random.nextInt(2048)];
+					random.nextBytes(data);
+					Container container = new Container(CompressionType.GZ, archive.getRevision());
+					container.compress(data, null);
+					store.getStorage().saveArchive(archive, container.data);
+				}
+			}
+
+			store.save();
+		}
+
+		BinaryFlatStorage.fromFlatStorage(flat, binary);
+		BinaryFlatStorage.toFlatStorage(binary, flat2);
+
+		for (int i = 0; i < 3; ++i)
+		{
+			String name = i + FlatStorage.EXTENSION;
+			assertArrayEquals(Files.readAllBytes(new File(flat, name).toPath()), Files.readAllBytes(new File(flat2, name).toPath()));
+		}
+
+		try (Store store = new Store(new FlatStorage(flat));
+			Store binaryStore = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+			binaryStore.load();
+
+			// indexes are added in directory listing order, so compare them by id
+			assertEquals(store.getIndexes().size(), binaryStore.getIndexes().size());
+			for (Index index : store.getIndexes())
+			{
+				assertEquals(index, binaryStore.findIndex(index.getId()));
+			}
+
+			BinaryFlatStorage storage = (BinaryFlatStorage) binaryStore.getStorage();
+			for (Index index : store.getIndexes())
+			{
+				for (Archive archive : index.getArchives())
+				{
+					Archive binaryArchive = binaryStore.findIndex(index.getId()).getArchive(archive.getArchiveId());
+					byte[] contents = store.getStorage().loadArchive(archive);
+
+					assertArrayEquals(contents, storage.loadArchive(binaryArchive));
+
+					ByteBuffer buf = storage.loadArchiveBuffer(binaryArchive);
+					byte[] bufContents = new byte[buf.remaining()];
+					buf.get(bufContents);
+					assertArrayEquals(contents, bufContents);
+
+					assertArrayEquals(archive.getHash(), binaryArchive.getHash());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSaveArchive() throws IOException
+	{
+		File binary = folder.newFolder();
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			Index index = store.addIndex(0);
+			Archive archive = index.addArchive(0);
+			Archive empty = index.addArchive(1);
+			store.getStorage().saveArchive(archive, "test".getBytes());
+			store.save();
+
+			assertArrayEquals("test".getBytes(), store.getStorage().loadArchive(archive));
+			assertNull(store.getStorage().loadArchive(empty));
+
+			store.getStorage().saveArchive(archive, "test2".getBytes());
+			assertArrayEquals("test2".getBytes(), store.getStorage().loadArchive(archive));
+			store.save();
+		}
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+
+			Index index = store.findIndex(0);
+			assertArrayEquals("test2".getBytes(), store.getStorage().loadArchive(index.getArchive(0)));
+			assertNull(store.getStorage().loadArchive(index.getArchive(1)));
+			assertNull(index.getArchive(1).getFileData());
+		}
+	}
+
+	@Test
+	public void testSaveLoaded() throws IOException
+	{
+		File binary = folder.newFolder();
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			Index index = store.addIndex(0);
+			store.getStorage().saveArchive(index.addArchive(0), "test".getBytes());
+			store.save();
+		}
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+
+			// keep the loaded file mapped while it is rewritten
+			ByteBuffer buf = ((BinaryFlatStorage) store.getStorage()).loadArchiveBuffer(store.findIndex(0).getArchive(0));
+			store.getStorage().saveArchive(store.findIndex(0).addArchive(1), "test2".getBytes());
+			store.save();
+
+			byte[] contents = new byte[buf.remaining()];
+			buf.get(contents);
+			assertArrayEquals("test".getBytes(), contents);
+		}
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+
+			Index index = store.findIndex(0);
+			assertArrayEquals("test".getBytes(), store.getStorage().loadArchive(index.getArchive(0)));
+			assertArrayEquals("test2".getBytes(), store.getStorage().loadArchive(index.getArchive(1)));
+		}
+	}
+
+	@Test
+	public void testConvertTwice() throws IOException
+	{
+		File flat = folder.newFolder();
+		File binary = folder.newFolder();
+
+		try (Store store = new Store(new FlatStorage(flat)))
+		{
+			Index index = store.addIndex(0);
+			store.getStorage().saveArchive(index.addArchive(0), "test".getBytes());
+			store.save();
+		}
+
+		BinaryFlatStorage.fromFlatStorage(flat, binary);
+
+		// move the binary store past the first generation
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+			store.getStorage().saveArchive(store.findIndex(0).getArchive(0), "test2".getBytes());
+			store.save();
+		}
+
+		try (Store store = new Store(new FlatStorage(flat)))
+		{
+			store.load();
+			store.getStorage().saveArchive(store.findIndex(0).getArchive(0), "test3".getBytes());
+			store.save();
+		}
+
+		BinaryFlatStorage.fromFlatStorage(flat, binary);
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+			assertArrayEquals("test3".getBytes(), store.getStorage().loadArchive(store.findIndex(0).getArchive(0)));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadTruncated() throws IOException
+	{
+		File binary = folder.newFolder();
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			Index index = store.addIndex(0);
+			store.getStorage().saveArchive(index.addArchive(0), "test".getBytes());
+			store.save();
+		}
+
+		File[] files = binary.listFiles((dir, name) -> name.endsWith(BinaryFlatStorage.EXTENSION));
+		assertEquals(1, files.length);
+		try (RandomAccessFile file = new RandomAccessFile(files[0], "rw"))
+		{
+			file.setLength(file.length() - 2);
+		}
+
+		try (Store store = new Store(new BinaryFlatStorage(binary)))
+		{
+			store.load();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDiskStorageTest
+{
+	// small enough that the test cache spans many chunks
+	private static final int CHUNK_SIZE = 520 * 3;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private List<byte[]> contents;
+
+	@Before
+	public void before() throws Exception
+	{
+		file = folder.newFolder();
+		contents = new ArrayList<>();
+
+		Random random = new Random(42L);
+		try (Store store = new Store(new DiskStorage(file)))
+		{
+			Index index = store.addIndex(0);
+			Index large = store.addIndex(1);
+			large.setProtocol(7);
+
+			// small archives, ones spanning several sectors, and ones with the large sector header
+			addArchive(store, index, 0, new byte[4], random);
+			addArchive(store, index, 1, new byte[2000], random);
+			addArchive(store, large, 0x10000, new byte[100], random);
+			addArchive(store, large, 0x10001, new byte[5000], random);
+
+			store.save();
+		}
+	}
+
+	private void addArchive(Store store, Index index, int archiveId, byte[] data, Random random) throws Exception
+	{
+		random.nextBytes(data);
+
+		Archive archive = index.addArchive(archiveId);
+		FileData[] fileData = {new FileData()};
+		archive.setFileData(fileData);
+
+		Container container = new Container(archive.getCompression(), -1);
+		container.compress(data, null);
+		store.getStorage().saveArchive(archive, container.data);
+		contents.add(data);
+	}
+
+	@Test
+	public void testLoad() throws Exception
+	{
+		try (Store store = new Store(new MappedDiskStorage(file, CHUNK_SIZE)))
+		{
+			store.load();
+
+			assertEquals(2, store.getIndexes().size());
+			assertArrayEquals(contents.get(0), load(store, 0, 0));
+			assertArrayEquals(contents.get(1), load(store, 0, 1));
+			assertArrayEquals(contents.get(2), load(store, 1, 0x10000));
+			assertArrayEquals(contents.get(3), load(store, 1, 0x10001));
+		}
+	}
+
+	@Test
+	public void testMatchesDiskStorage() throws Exception
+	{
+		try (Store diskStore = new Store(new DiskStorage(file));
+			Store mappedStore = new Store(new MappedDiskStorage(file)))
+		{
+			diskStore.load();
+			mappedStore.load();
+
+			assertEquals(diskStore, mappedStore);
+			for (Index index : diskStore.getIndexes())
+			{
+				for (Archive archive : index.getArchives())
+				{
+					Archive mappedArchive = mappedStore.findIndex(index.getId()).getArchive(archive.getArchiveId());
+					assertArrayEquals(diskStore.getStorage().loadArchive(archive),
+						mappedStore.getStorage().loadArchive(mappedArchive));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (Store store = new Store(new MappedDiskStorage(file, CHUNK_SIZE)))
+		{
+			store.load();
+
+			List<Future<byte[]>> futures = new ArrayList<>();
+			for (int i = 0; i < 400; ++i)
+			{
+				futures.add(executor.submit(() -> load(store, 0, 1)));
+			}
+
+			for (Future<byte[]> future : futures)
+			{
+				assertArrayEquals(contents.get(1), future.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSaveArchive() throws Exception
+	{
+		byte[] data = "test".getBytes();
+		try (Store store = new Store(new MappedDiskStorage(file, CHUNK_SIZE)))
+		{
+			store.load();
+
+			Archive archive = store.findIndex(0).addArchive(2);
+			archive.setFileData(new FileData[]{new FileData()});
+
+			Container container = new Container(archive.getCompression(), -1);
+			container.compress(data, null);
+			store.getStorage().saveArchive(archive, container.data);
+			store.save();
+
+			// read back through a new mapping
+			assertArrayEquals(data, load(store, 0, 2));
+		}
+
+		try (Store store = new Store(new MappedDiskStorage(file, CHUNK_SIZE)))
+		{
+			store.load();
+			assertArrayEquals(data, load(store, 0, 2));
+		}
+	}
+
+	@Test
+	public void testMissingArchive() throws Exception
+	{
+		try (Store store = new Store(new MappedDiskStorage(file, CHUNK_SIZE)))
+		{
+			store.load();
+
+			Archive archive = store.findIndex(0).addArchive(100);
+			assertNull(store.getStorage().loadArchive(archive));
+		}
+	}
+
+	private static byte[] load(Store store, int indexId, int archiveId) throws Exception
+	{
+		Archive archive = store.findIndex(indexId).getArchive(archiveId);
+		return archive.decompress(store.getStorage().loadArchive(archive));
+	}
+}
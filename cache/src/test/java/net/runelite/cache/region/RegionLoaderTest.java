@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.XteaKeyManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RegionLoaderTest
+{
+	private static final int REGIONS = 200;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testParallelMatchesSerial() throws IOException
+	{
+		File root = folder.newFolder();
+		Random random = new Random(42L);
+
+		try (Store store = new Store(root))
+		{
+			Index index = store.addIndex(IndexType.MAPS.getNumber());
+			int archiveId = 0;
+
+			for (int i = 0; i < REGIONS; ++i)
+			{
+				int x = 40 + random.nextInt(20);
+				int y = 40 + random.nextInt(120);
+				if (index.findArchiveByName("m" + x + "_" + y) != null)
+				{
+					continue;
+				}
+
+				Archive map = index.addArchive(archiveId++);
+				map.setNameHash(Djb2.hash("m" + x + "_" + y));
+				saveArchive(store, map, mapData(random));
+
+				Archive land = index.addArchive(archiveId++);
+				land.setNameHash(Djb2.hash("l" + x + "_" + y));
+				saveArchive(store, land, new byte[1]);
+			}
+
+			RegionLoader serial = new RegionLoader(store, new XteaKeyManager());
+			serial.loadRegions();
+			serial.calculateBounds();
+
+			RegionLoader parallel = new RegionLoader(store, new XteaKeyManager());
+			AtomicInteger processed = new AtomicInteger();
+			parallel.loadRegions(new ForkJoinPool(4), (done, total) -> processed.accumulateAndGet(done, Math::max));
+
+			assertEquals(32768, processed.get());
+			assertEquals(archiveId / 2, serial.getRegions().size());
+			assertEquals(serial.getRegions().size(), parallel.getRegions().size());
+
+			for (Region expected : serial.getRegions())
+			{
+				Region actual = parallel.findRegionForWorldCoordinates(expected.getBaseX(), expected.getBaseY());
+				assertNotNull(actual);
+				assertEquals(expected.getRegionID(), actual.getRegionID());
+
+				for (int z = 0; z < Region.Z; ++z)
+				{
+					for (int x = 0; x < Region.X; ++x)
+					{
+						for (int y = 0; y < Region.Y; ++y)
+						{
+							assertEquals(expected.getTileHeight(z, x, y), actual.getTileHeight(z, x, y));
+							assertEquals(expected.getTileSetting(z, x, y), actual.getTileSetting(z, x, y));
+							assertEquals(expected.getOverlayId(z, x, y), actual.getOverlayId(z, x, y));
+							assertEquals(expected.getUnderlayId(z, x, y), actual.getUnderlayId(z, x, y));
+						}
+					}
+				}
+			}
+
+			assertEquals(serial.getLowestX().getRegionID(), parallel.getLowestX().getRegionID());
+			assertEquals(serial.getLowestY().getRegionID(), parallel.getLowestY().getRegionID());
+			assertEquals(serial.getHighestX().getRegionID(), parallel.getHighestX().getRegionID());
+			assertEquals(serial.getHighestY().getRegionID(), parallel.getHighestY().getRegionID());
+
+			// the incrementally kept bounds agree with a full recompute
+			Region lowestX = parallel.getLowestX();
+			parallel.calculateBounds();
+			assertSame(lowestX, parallel.getLowestX());
+		}
+	}
+
+	private static void saveArchive(Store store, Archive archive, byte[] data) throws IOException
+	{
+		Container container = new Container(CompressionType.GZ, -1);
+		container.compress(data, null);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+
+	private static byte[] mapData(Random random)
+	{
+		byte[] data = new byte[Region.Z * Region.X * Region.Y * 3];
+		int pos = 0;
+		for (int tile = 0; tile < Region.Z * Region.X * Region.Y; ++tile)
+		{
+			// underlay, then height, which ends the tile
+			data[pos++] = (byte) (82 + random.nextInt(100));
+			data[pos++] = 1;
+			data[pos++] = (byte) random.nextInt(256);
+		}
+		return data;
+	}
+}
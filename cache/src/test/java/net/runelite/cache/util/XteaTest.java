@@ -24,6 +24,7 @@
  */
 package net.runelite.cache.util;
 
+import java.nio.ByteBuffer;
 import static org.junit.Assert.assertArrayEquals;
 import org.junit.Test;
 
@@ -52,4 +53,26 @@ public class XteaTest
 
 		assertArrayEquals(data, decData);
 	}
+
+	@Test
+	public void testDecryptInPlace()
+	{
+		int[] key = new int[]
+		{
+			4, 8, 15, 16
+		};
+		byte[] encrypted = new byte[]
+		{
+			0, 121, -18, 48, 64, 120, -42, -113, 77, 116, 101, 115, 116, 49
+		};
+
+		ByteBuffer buf = ByteBuffer.allocateDirect(encrypted.length);
+		buf.put(encrypted).flip();
+
+		new Xtea(key).decrypt(buf, 1, encrypted.length - 1);
+
+		byte[] decData = new byte[encrypted.length];
+		buf.get(decData);
+		assertArrayEquals(("\0testtesttest1").getBytes(), decData);
+	}
 }
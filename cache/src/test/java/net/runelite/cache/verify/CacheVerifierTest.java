@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.util.Djb2;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheVerifierTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testVerify() throws IOException
+	{
+		File root = folder.newFolder();
+		Random random = new Random(42L);
+
+		try (Store store = new Store(root))
+		{
+			Index index = store.addIndex(0);
+			for (int i = 0; i < 64; ++i)
+			{
+				saveArchive(store, index.addArchive(i), random, i % 2 == 0 ? CompressionType.GZ : CompressionType.BZ2, null);
+			}
+
+			Index maps = store.addIndex(IndexType.MAPS.getNumber());
+			Archive land = maps.addArchive(0);
+			land.setNameHash(Djb2.hash("l50_50"));
+			saveArchive(store, land, random, CompressionType.GZ, new int[]{1, 2, 3, 4});
+
+			VerificationReport report = new CacheVerifier(store).verify(new ForkJoinPool(4));
+
+			assertTrue(report.isValid());
+			assertEquals(2, report.getIndexes());
+			assertEquals(65, report.getArchives());
+			assertEquals(64, report.getVerified());
+			assertEquals(1, report.getEncrypted());
+			assertEquals(64 * 1024, report.getBytesDecompressed());
+
+			// the index disagrees with the data
+			index.getArchive(3).setCrc(index.getArchive(3).getCrc() + 1);
+			index.getArchive(5).setRevision(6);
+			// listed in the index but never written
+			index.addArchive(64);
+
+			report = new CacheVerifier(store).verify(new ForkJoinPool(4));
+
+			assertFalse(report.isValid());
+			assertEquals(62, report.getVerified());
+			assertEquals(3, report.getErrors().size());
+			assertError(report.getErrors().get(0), 3, VerificationErrorType.CRC_MISMATCH);
+			assertError(report.getErrors().get(1), 5, VerificationErrorType.REVISION_MISMATCH);
+			assertError(report.getErrors().get(2), 64, VerificationErrorType.MISSING);
+		}
+	}
+
+	private static void assertError(VerificationError error, int archive, VerificationErrorType type)
+	{
+		assertEquals(0, error.getIndex());
+		assertEquals(archive, error.getArchive());
+		assertEquals(type, error.getType());
+	}
+
+	private static void saveArchive(Store store, Archive archive, Random random, int compression, int[] keys) throws IOException
+	{
+		byte[] data = new byte[1024];
+		random.nextBytes(data);
+
+		archive.setRevision(archive.getArchiveId());
+
+		Container container = new Container(compression, archive.getRevision());
+		container.compress(data, keys);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+}
@@ -45,9 +45,21 @@ public class ItemClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(ItemClient.class);
 
+	private final HttpUrl apiBase;
+
+	public ItemClient()
+	{
+		this(RuneLiteAPI.getApiBase());
+	}
+
+	public ItemClient(HttpUrl apiBase)
+	{
+		this.apiBase = apiBase;
+	}
+
 	public ItemPrice lookupItemPrice(int itemId) throws IOException
 	{
-		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+		HttpUrl url = apiBase.newBuilder()
 			.addPathSegment("item")
 			.addPathSegment("" + itemId)
 			.addPathSegment("price")
@@ -78,7 +90,7 @@ public class ItemClient
 
 	public ItemPrice[] lookupItemPrice(Integer[] itemIds) throws IOException
 	{
-		HttpUrl.Builder urlBuilder = RuneLiteAPI.getApiBase().newBuilder()
+		HttpUrl.Builder urlBuilder = apiBase.newBuilder()
 				.addPathSegment("item")
 				.addPathSegment("price");
 
@@ -114,7 +126,7 @@ public class ItemClient
 
 	public BufferedImage getIcon(int itemId) throws IOException
 	{
-		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+		HttpUrl url = apiBase.newBuilder()
 			.addPathSegment("item")
 			.addPathSegment("" + itemId)
 			.addPathSegment("icon")
@@ -144,7 +156,7 @@ public class ItemClient
 
 	public SearchResult search(String itemName) throws IOException
 	{
-		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+		HttpUrl url = apiBase.newBuilder()
 			.addPathSegment("item")
 			.addPathSegment("search")
 			.addQueryParameter("query", itemName)
@@ -175,7 +187,7 @@ public class ItemClient
 
 	public ItemPrice[] getPrices() throws IOException
 	{
-		HttpUrl.Builder urlBuilder = RuneLiteAPI.getApiBase().newBuilder()
+		HttpUrl.Builder urlBuilder = apiBase.newBuilder()
 			.addPathSegment("item")
 			.addPathSegment("prices.js");
 
@@ -204,6 +216,45 @@ public class ItemClient
 		}
 	}
 
+	/**
+	 * Get the prices which have changed since the given price epoch
+	 *
+	 * @param epoch last price epoch seen, or 0 to get every price
+	 * @return price delta, or null on error
+	 * @throws IOException
+	 */
+	public ItemPriceDelta getPrices(long epoch) throws IOException
+	{
+		HttpUrl url = apiBase.newBuilder()
+			.addPathSegment("item")
+			.addPathSegment("prices")
+			.addPathSegment("since")
+			.addQueryParameter("epoch", Long.toString(epoch))
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				logger.warn("Error looking up price delta: {}", response);
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPriceDelta.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+
 	public Map<Integer, ItemStats> getStats() throws IOException
 	{
 		HttpUrl.Builder urlBuilder = RuneLiteAPI.getStaticBase().newBuilder()
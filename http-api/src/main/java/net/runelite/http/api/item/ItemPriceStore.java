@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.item;
+
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.http.api.RuneLiteAPI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local copy of the item prices which is kept up to date by applying the price deltas
+ * since the last seen price epoch, and persisted to disk so it is available before the
+ * first sync completes.
+ */
+public class ItemPriceStore
+{
+	private static final Logger logger = LoggerFactory.getLogger(ItemPriceStore.class);
+
+	private final ItemClient itemClient;
+	private final File file;
+
+	private final Map<Integer, ItemPrice> prices = new HashMap<>();
+	private long epoch;
+
+	public ItemPriceStore(ItemClient itemClient, File file)
+	{
+		this.itemClient = itemClient;
+		this.file = file;
+	}
+
+	/**
+	 * Load the price snapshot from disk
+	 *
+	 * @return the loaded prices, or null if there is no usable snapshot
+	 */
+	public synchronized ItemPrice[] load()
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		ItemPriceDelta snapshot;
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+		{
+			snapshot = RuneLiteAPI.GSON.fromJson(reader, ItemPriceDelta.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			logger.warn("Unable to load price snapshot", ex);
+			return null;
+		}
+
+		if (snapshot == null || snapshot.getPrices() == null)
+		{
+			return null;
+		}
+
+		prices.clear();
+		apply(snapshot);
+		return getPrices();
+	}
+
+	/**
+	 * Fetch the prices which have changed since the last sync and apply them. If the price delta
+	 * can't be fetched, for example from a service without it, the full price list is fetched instead.
+	 *
+	 * @return all prices after applying the delta, or null if nothing has changed
+	 * @throws IOException
+	 */
+	public synchronized ItemPrice[] sync() throws IOException
+	{
+		ItemPriceDelta delta = itemClient.getPrices(epoch);
+		if (delta == null)
+		{
+			delta = getFullPrices();
+		}
+
+		if (delta == null || delta.getPrices() == null)
+		{
+			return null;
+		}
+
+		if (!delta.isFull() && (delta.getPrices().length == 0 || delta.getEpoch() <= epoch))
+		{
+			return null;
+		}
+
+		if (delta.isFull())
+		{
+			prices.clear();
+		}
+
+		apply(delta);
+		save();
+
+		logger.debug("Applied {} prices, now at price epoch {}", delta.getPrices().length, epoch);
+		return getPrices();
+	}
+
+	public synchronized long getEpoch()
+	{
+		return epoch;
+	}
+
+	private ItemPriceDelta getFullPrices() throws IOException
+	{
+		ItemPrice[] fullPrices = itemClient.getPrices();
+		if (fullPrices == null)
+		{
+			return null;
+		}
+
+		// The full list has no epoch, so the next sync asks for everything again
+		ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setEpoch(0);
+		delta.setFull(true);
+		delta.setPrices(fullPrices);
+		return delta;
+	}
+
+	private void apply(ItemPriceDelta delta)
+	{
+		for (ItemPrice price : delta.getPrices())
+		{
+			prices.put(price.getId(), price);
+		}
+
+		// A full price list resets the epoch, as the service may have gone back in time
+		epoch = delta.isFull() ? delta.getEpoch() : Math.max(epoch, delta.getEpoch());
+	}
+
+	private ItemPrice[] getPrices()
+	{
+		return prices.values().toArray(new ItemPrice[0]);
+	}
+
+	private void save()
+	{
+		ItemPriceDelta snapshot = new ItemPriceDelta();
+		snapshot.setEpoch(epoch);
+		snapshot.setFull(true);
+		snapshot.setPrices(getPrices());
+
+		// Write to a temporary file first so an interrupted save never leaves a truncated snapshot
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try
+		{
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))
+			{
+				RuneLiteAPI.GSON.toJson(snapshot, writer);
+			}
+
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex)
+		{
+			logger.warn("Unable to save price snapshot", ex);
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.item;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import net.runelite.http.api.RuneLiteAPI;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ItemPriceStoreTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final MockWebServer server = new MockWebServer();
+
+	private File file;
+	private ItemPriceStore store;
+
+	@Before
+	public void before() throws IOException
+	{
+		server.start();
+
+		file = new File(folder.getRoot(), "prices.json");
+		store = new ItemPriceStore(new ItemClient(server.url("/")), file);
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		server.shutdown();
+	}
+
+	@Test
+	public void testSync() throws Exception
+	{
+		server.enqueue(response(100, true, price(4151, 1_500_000), price(11832, 20_000_000)));
+		server.enqueue(response(200, false, price(4151, 1_600_000)));
+		server.enqueue(response(200, false));
+
+		ItemPrice[] prices = store.sync();
+		assertEquals("/item/prices/since?epoch=0", server.takeRequest().getPath());
+		assertEquals(2, prices.length);
+		assertEquals(100, store.getEpoch());
+
+		prices = sort(store.sync());
+		assertEquals("/item/prices/since?epoch=100", server.takeRequest().getPath());
+		assertEquals(1_600_000, prices[0].getPrice());
+		assertEquals(20_000_000, prices[1].getPrice());
+		assertEquals(200, store.getEpoch());
+
+		// nothing has changed
+		assertNull(store.sync());
+		assertEquals("/item/prices/since?epoch=200", server.takeRequest().getPath());
+	}
+
+	@Test
+	public void testFullResetsEpoch() throws Exception
+	{
+		server.enqueue(response(200, true, price(4151, 1_500_000), price(11832, 20_000_000)));
+		server.enqueue(response(50, true, price(4151, 1_400_000)));
+
+		store.sync();
+		ItemPrice[] prices = store.sync();
+
+		assertEquals(1, prices.length);
+		assertEquals(1_400_000, prices[0].getPrice());
+		assertEquals(50, store.getEpoch());
+	}
+
+	@Test
+	public void testSnapshot() throws Exception
+	{
+		server.enqueue(response(100, true, price(4151, 1_500_000), price(11832, 20_000_000)));
+		server.enqueue(response(200, false, price(11832, 21_000_000)));
+
+		store.sync();
+		store.sync();
+
+		ItemPriceStore loaded = new ItemPriceStore(new ItemClient(server.url("/")), file);
+		ItemPrice[] prices = sort(loaded.load());
+
+		assertEquals(200, loaded.getEpoch());
+		assertEquals(2, prices.length);
+		assertEquals(1_500_000, prices[0].getPrice());
+		assertEquals(21_000_000, prices[1].getPrice());
+		assertEquals(Instant.ofEpochSecond(1), prices[1].getTime());
+	}
+
+	@Test
+	public void testLoadMissing()
+	{
+		assertNull(store.load());
+		assertEquals(0, store.getEpoch());
+	}
+
+	@Test
+	public void testError() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(500));
+		server.enqueue(new MockResponse().setResponseCode(500));
+
+		assertNull(store.sync());
+		assertEquals(0, store.getEpoch());
+	}
+
+	@Test
+	public void testFallbackToFullPrices() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(404));
+		server.enqueue(new MockResponse().setBody(RuneLiteAPI.GSON.toJson(new ItemPrice[]{price(4151, 1_500_000), price(11832, 20_000_000)})));
+		server.enqueue(new MockResponse().setResponseCode(404));
+		server.enqueue(new MockResponse().setBody(RuneLiteAPI.GSON.toJson(new ItemPrice[]{price(4151, 1_600_000)})));
+
+		ItemPrice[] prices = sort(store.sync());
+		assertEquals("/item/prices/since?epoch=0", server.takeRequest().getPath());
+		assertEquals("/item/prices.js", server.takeRequest().getPath());
+		assertEquals(2, prices.length);
+		assertEquals(1_500_000, prices[0].getPrice());
+		assertEquals(0, store.getEpoch());
+
+		// the full list replaces everything
+		prices = store.sync();
+		assertEquals(1, prices.length);
+		assertEquals(1_600_000, prices[0].getPrice());
+	}
+
+	private static ItemPrice price(int id, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setName("Item " + id);
+		itemPrice.setPrice(price);
+		itemPrice.setTime(Instant.ofEpochSecond(1));
+		return itemPrice;
+	}
+
+	private static MockResponse response(long epoch, boolean full, ItemPrice... prices)
+	{
+		ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setEpoch(epoch);
+		delta.setFull(full);
+		delta.setPrices(prices);
+		return new MockResponse().setBody(RuneLiteAPI.GSON.toJson(delta));
+	}
+
+	private static ItemPrice[] sort(ItemPrice[] prices)
+	{
+		Arrays.sort(prices, Comparator.comparingInt(ItemPrice::getId));
+		return prices;
+	}
+}
@@ -24,22 +24,26 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.servlet.http.HttpServletResponse;
+import lombok.Value;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceDelta;
 import net.runelite.http.api.item.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -57,26 +61,99 @@ public class ItemController
 		.maximumSize(1024L)
 		.build();
 
+	@Value
+	private static class PriceSnapshot
+	{
+		private final ItemPrice[] prices;
+		/**
+		 * Epoch of the snapshot in which each price last changed
+		 */
+		private final long[] changedEpochs;
+		/**
+		 * Epoch of this snapshot. Each snapshot has a higher epoch than the one before it.
+		 */
+		private final long epoch;
+		/**
+		 * Epoch of the first snapshot loaded since the service started, which is the oldest
+		 * epoch deltas can be made from
+		 */
+		private final long firstEpoch;
+	}
+
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
+	private volatile PriceSnapshot priceSnapshot;
 
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
+	}
 
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
-			.map(priceEntry ->
+	@Scheduled(fixedDelay = 30 * 60 * 1000)
+	public synchronized void refreshPrices()
+	{
+		priceSnapshot = loadPrices(priceSnapshot);
+	}
+
+	private PriceSnapshot getPriceSnapshot()
+	{
+		PriceSnapshot snapshot = priceSnapshot;
+		if (snapshot == null)
+		{
+			synchronized (this)
 			{
-				ItemPrice itemPrice = new ItemPrice();
-				itemPrice.setId(priceEntry.getItem());
-				itemPrice.setName(priceEntry.getName());
-				itemPrice.setPrice(priceEntry.getPrice());
-				itemPrice.setTime(priceEntry.getTime());
-				return itemPrice;
-			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
+				snapshot = priceSnapshot;
+				if (snapshot == null)
+				{
+					snapshot = loadPrices(null);
+					priceSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	private PriceSnapshot loadPrices(PriceSnapshot previous)
+	{
+		List<PriceEntry> priceEntries = itemService.fetchPrices();
+		ItemPrice[] prices = new ItemPrice[priceEntries.size()];
+		long[] changedEpochs = new long[priceEntries.size()];
+
+		// The epoch counts snapshots rather than fetch times, as a price may be committed with a fetch
+		// time older than the previous snapshot. It starts from the clock so that it keeps increasing
+		// when the service restarts.
+		final long epoch = previous == null
+			? System.currentTimeMillis()
+			: Math.max(previous.getEpoch() + 1, System.currentTimeMillis());
+
+		final Map<Integer, Integer> previousIndexes = new HashMap<>();
+		if (previous != null)
+		{
+			for (int i = 0; i < previous.getPrices().length; ++i)
+			{
+				previousIndexes.put(previous.getPrices()[i].getId(), i);
+			}
+		}
+
+		for (int i = 0; i < prices.length; ++i)
+		{
+			PriceEntry priceEntry = priceEntries.get(i);
+
+			ItemPrice itemPrice = new ItemPrice();
+			itemPrice.setId(priceEntry.getItem());
+			itemPrice.setName(priceEntry.getName());
+			itemPrice.setPrice(priceEntry.getPrice());
+			itemPrice.setTime(priceEntry.getTime());
+			prices[i] = itemPrice;
+
+			final Integer previousIndex = previousIndexes.get(itemPrice.getId());
+			changedEpochs[i] = previousIndex != null && previous.getPrices()[previousIndex].equals(itemPrice)
+				? previous.getChangedEpochs()[previousIndex]
+				: epoch;
+		}
+
+		return new PriceSnapshot(prices, changedEpochs, epoch, previous == null ? epoch : previous.getFirstEpoch());
 	}
 
 	@GetMapping("/{itemId}")
@@ -222,6 +299,36 @@ public class ItemController
 	{
 		return ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+			.body(getPriceSnapshot().getPrices());
+	}
+
+	@GetMapping("/prices/since")
+	public ResponseEntity<ItemPriceDelta> pricesSince(@RequestParam long epoch)
+	{
+		PriceSnapshot snapshot = getPriceSnapshot();
+
+		ItemPriceDelta delta = new ItemPriceDelta();
+		delta.setEpoch(snapshot.getEpoch());
+
+		if (epoch < snapshot.getFirstEpoch() || epoch > snapshot.getEpoch())
+		{
+			// Unknown epoch, or one from before the service started, send everything
+			delta.setFull(true);
+			delta.setPrices(snapshot.getPrices());
+		}
+		else
+		{
+			ItemPrice[] prices = snapshot.getPrices();
+			long[] changedEpochs = snapshot.getChangedEpochs();
+			delta.setPrices(IntStream.range(0, prices.length)
+				.filter(i -> changedEpochs[i] > epoch)
+				.mapToObj(i -> prices[i])
+				.toArray(ItemPrice[]::new));
+		}
+
+		// The delta depends on the epoch asked for and changes with every snapshot
+		return ResponseEntity.ok()
+			.cacheControl(CacheControl.noCache())
+			.body(delta);
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.jayway.jsonpath.JsonPath;
+import java.time.Instant;
+import java.util.Arrays;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ItemController.class)
+@ActiveProfiles("test")
+public class ItemControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ItemController itemController;
+
+	@MockBean
+	private ItemService itemService;
+
+	@Test
+	public void pricesSince() throws Exception
+	{
+		final Instant fetched = Instant.now();
+		when(itemService.fetchPrices()).thenReturn(Arrays.asList(
+			price(4151, 1_500_000, fetched),
+			price(11802, 20_000_000, fetched)));
+		itemController.refreshPrices();
+
+		// No epoch yet, so everything is sent
+		final long epoch = epoch(mockMvc.perform(get("/item/prices/since").param("epoch", "0"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.full").value(true))
+			.andExpect(jsonPath("$.prices.length()").value(2))
+			.andReturn().getResponse().getContentAsString());
+
+		// Nothing has changed since the epoch
+		mockMvc.perform(get("/item/prices/since").param("epoch", Long.toString(epoch)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.full").value(false))
+			.andExpect(jsonPath("$.prices.length()").value(0));
+
+		// A price committed late, with a fetch time older than the previous snapshot
+		when(itemService.fetchPrices()).thenReturn(Arrays.asList(
+			price(4151, 1_500_000, fetched),
+			price(11802, 19_000_000, fetched.minusSeconds(60))));
+		itemController.refreshPrices();
+
+		final long nextEpoch = epoch(mockMvc.perform(get("/item/prices/since").param("epoch", Long.toString(epoch)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.full").value(false))
+			.andExpect(jsonPath("$.prices.length()").value(1))
+			.andExpect(jsonPath("$.prices[0].id").value(11802))
+			.andExpect(jsonPath("$.prices[0].price").value(19_000_000))
+			.andReturn().getResponse().getContentAsString());
+		assertThat(nextEpoch, greaterThan(epoch));
+
+		// An epoch the service has not reached is unknown, so everything is sent
+		mockMvc.perform(get("/item/prices/since").param("epoch", Long.toString(nextEpoch + 1)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.full").value(true))
+			.andExpect(jsonPath("$.prices.length()").value(2));
+	}
+
+	private static PriceEntry price(int item, int price, Instant fetched)
+	{
+		PriceEntry priceEntry = new PriceEntry();
+		priceEntry.setItem(item);
+		priceEntry.setName("item " + item);
+		priceEntry.setPrice(price);
+		priceEntry.setTime(fetched);
+		priceEntry.setFetched_time(fetched);
+		return priceEntry;
+	}
+
+	private static long epoch(String json)
+	{
+		return ((Number) JsonPath.read(json, "$.epoch")).longValue();
+	}
+}
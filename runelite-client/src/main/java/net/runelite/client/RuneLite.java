@@ -37,6 +37,8 @@ import java.util.Locale;
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -50,7 +52,9 @@ import net.runelite.client.chat.CommandManager;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.discord.DiscordService;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.EventBusProfiler;
 import net.runelite.client.game.ClanManager;
+import net.runelite.client.game.ContainerValuationService;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.LootManager;
 import net.runelite.client.game.chatbox.ChatboxPanelManager;
@@ -160,6 +164,12 @@ public class RuneLite
 	@Inject
 	private Provider<LootManager> lootManager;
 
+	@Inject
+	private Provider<ContainerValuationService> containerValuationService;
+
+	@Inject
+	private Provider<EventBusProfiler> eventBusProfiler;
+
 	@Inject
 	private Provider<ChatboxPanelManager> chatboxPanelManager;
 
@@ -257,6 +267,18 @@ public class RuneLite
 		log.info("Client initialization took {}ms. Uptime: {}ms", end - start, uptime);
 	}
 
+	private static void registerMBean(Object object, String type)
+	{
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().registerMBean(object, new ObjectName("net.runelite.client:type=" + type));
+		}
+		catch (JMException e)
+		{
+			log.warn("Unable to register {} MBean", type, e);
+		}
+	}
+
 	public void start() throws Exception
 	{
 		// Load RuneLite or Vanilla client
@@ -322,13 +344,16 @@ public class RuneLite
 			chatMessageManager.get().loadColors();
 
 			eventBus.register(overlayRenderer.get());
+			registerMBean(overlayRenderer.get(), "OverlayRenderer");
 			eventBus.register(clanManager.get());
 			eventBus.register(itemManager.get());
 			eventBus.register(menuManager.get());
 			eventBus.register(chatMessageManager.get());
 			eventBus.register(commandManager.get());
 			eventBus.register(lootManager.get());
+			eventBus.register(containerValuationService.get());
 			eventBus.register(chatboxPanelManager.get());
+			eventBus.register(eventBusProfiler.get());
 
 			// Add core overlays
 			WidgetOverlay.createOverlays(client).forEach(overlayManager::add);
@@ -346,6 +371,7 @@ public class RuneLite
 		if (this.client != null)
 		{
 			scheduler.registerObject(modelOutlineRenderer.get());
+			scheduler.registerObject(eventBusProfiler.get());
 		}
 	}
 
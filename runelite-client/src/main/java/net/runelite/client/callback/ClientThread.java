@@ -27,8 +27,12 @@ package net.runelite.client.callback;
 import com.google.inject.Inject;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 
@@ -36,18 +40,68 @@ import net.runelite.api.Client;
 @Slf4j
 public class ClientThread
 {
-	private ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	/**
+	 * Queue an invoke is placed in
+	 */
+	public enum Lane
+	{
+		/**
+		 * Run in full every frame
+		 */
+		CRITICAL,
+		/**
+		 * Run while the frame budget lasts, any work left over is carried over to the next frame
+		 */
+		BACKGROUND
+	}
+
+	private static final long DEFAULT_FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private final ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<BooleanSupplier> backgroundInvokes = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger invokesDepth = new AtomicInteger();
+	private final AtomicInteger backgroundInvokesDepth = new AtomicInteger();
+
+	/**
+	 * Time per frame which may be spent on invokes before background invokes are carried over to the next frame
+	 */
+	@Getter
+	@Setter
+	private volatile long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+	/**
+	 * Time spent running invokes during the last frame
+	 */
+	@Getter
+	private volatile long lastFrameNanos;
+
+	/**
+	 * Total time spent running invokes
+	 */
+	@Getter
+	private volatile long totalNanos;
+
+	/**
+	 * Number of frames in which background invokes were carried over to the next frame
+	 */
+	@Getter
+	private volatile long carryOvers;
 
 	@Inject
 	private Client client;
 
 	public void invoke(Runnable r)
+	{
+		invoke(r, Lane.CRITICAL);
+	}
+
+	public void invoke(Runnable r, Lane lane)
 	{
 		invoke(() ->
 		{
 			r.run();
 			return true;
-		});
+		}, lane);
 	}
 
 	/**
@@ -55,17 +109,26 @@ public class ClientThread
 	 * If r returns false, r will be ran again, at a later point
 	 */
 	public void invoke(BooleanSupplier r)
+	{
+		invoke(r, Lane.CRITICAL);
+	}
+
+	/**
+	 * Will run r on the game thread, at a unspecified point in the future.
+	 * If r returns false, r will be ran again, at a later point, from the given lane
+	 */
+	public void invoke(BooleanSupplier r, Lane lane)
 	{
 		if (client.isClientThread())
 		{
-			if (r.getAsBoolean())
+			if (!r.getAsBoolean())
 			{
-				invokes.add(r);
+				invokeLater(r, lane);
 			}
 			return;
 		}
 
-		invokeLater(r);
+		invokeLater(r, lane);
 	}
 
 	/**
@@ -73,43 +136,117 @@ public class ClientThread
 	 * If r returns false, r will be ran again, at a later point
 	 */
 	public void invokeLater(Runnable r)
+	{
+		invokeLater(r, Lane.CRITICAL);
+	}
+
+	public void invokeLater(Runnable r, Lane lane)
 	{
 		invokeLater(() ->
 		{
 			r.run();
 			return true;
-		});
+		}, lane);
 	}
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		invokeLater(r, Lane.CRITICAL);
+	}
+
+	public void invokeLater(BooleanSupplier r, Lane lane)
+	{
+		if (lane == Lane.BACKGROUND)
+		{
+			backgroundInvokes.add(r);
+			backgroundInvokesDepth.incrementAndGet();
+		}
+		else
+		{
+			invokes.add(r);
+			invokesDepth.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of invokes waiting in a lane
+	 */
+	public int getQueueDepth(Lane lane)
+	{
+		return lane == Lane.BACKGROUND ? backgroundInvokesDepth.get() : invokesDepth.get();
 	}
 
 	void invoke()
 	{
 		assert client.isClientThread();
+		final long start = System.nanoTime();
+
 		Iterator<BooleanSupplier> ir = invokes.iterator();
 		for (; ir.hasNext(); )
 		{
 			BooleanSupplier r = ir.next();
-			boolean remove = true;
-			try
+			if (run(r))
 			{
-				remove = r.getAsBoolean();
+				ir.remove();
+				invokesDepth.decrementAndGet();
 			}
-			catch (ThreadDeath d)
+		}
+
+		// Only look at the background invokes which were queued at the start, so invokes which are
+		// not done yet are not run twice in one frame
+		final long deadline = start + frameBudgetNanos;
+		int remaining = backgroundInvokesDepth.get();
+		boolean first = true;
+
+		while (remaining-- > 0)
+		{
+			// Always make some progress, even if the critical invokes used up the budget
+			if (!first && System.nanoTime() - deadline >= 0)
 			{
-				throw d;
+				++carryOvers;
+				break;
 			}
-			catch (Throwable e)
+			first = false;
+
+			final BooleanSupplier r = backgroundInvokes.poll();
+			if (r == null)
 			{
-				log.warn("Exception in invoke", e);
+				break;
 			}
-			if (remove)
+
+			if (!run(r))
 			{
-				ir.remove();
+				// not done, move it to the back so it doesn't hold up the others
+				backgroundInvokes.add(r);
+			}
+			else
+			{
+				backgroundInvokesDepth.decrementAndGet();
 			}
 		}
+
+		final long elapsed = System.nanoTime() - start;
+		lastFrameNanos = elapsed;
+		totalNanos += elapsed;
+	}
+
+	/**
+	 * @return true if r is done and should be removed from its queue
+	 */
+	private static boolean run(BooleanSupplier r)
+	{
+		try
+		{
+			return r.getAsBoolean();
+		}
+		catch (ThreadDeath d)
+		{
+			throw d;
+		}
+		catch (Throwable e)
+		{
+			log.warn("Exception in invoke", e);
+			return true;
+		}
 	}
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.awt.Color;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Getter;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Parsed value of a single configuration getter. The value is computed once and then served
+ * from here until {@link ConfigManager} invalidates it because the underlying key changed.
+ */
+class CachedConfigValue
+{
+	/**
+	 * Returned by {@link #get()} when there is no cached value
+	 */
+	static final Object MISSING = new Object();
+
+	private static final Object NULL = new Object();
+
+	@Getter
+	private final String groupAndKey;
+
+	@Getter
+	private final boolean cacheable;
+
+	private volatile Object value = MISSING;
+	private int generation;
+
+	CachedConfigValue(String groupAndKey, Class<?> type)
+	{
+		this.groupAndKey = groupAndKey;
+		this.cacheable = isImmutable(type);
+	}
+
+	/**
+	 * @return the cached value, which may be null, or {@link #MISSING}
+	 */
+	Object get()
+	{
+		final Object v = value;
+		return v == NULL ? null : v;
+	}
+
+	synchronized int getGeneration()
+	{
+		return generation;
+	}
+
+	/**
+	 * Stores a computed value, unless the value has been invalidated since the computation started
+	 *
+	 * @param value      computed value
+	 * @param generation generation read before computing the value
+	 */
+	synchronized void set(Object value, int generation)
+	{
+		if (cacheable && this.generation == generation)
+		{
+			this.value = value == null ? NULL : value;
+		}
+	}
+
+	synchronized void invalidate()
+	{
+		generation++;
+		value = MISSING;
+	}
+
+	/**
+	 * Mutable types such as {@link java.awt.Dimension} are parsed again on every call, as callers
+	 * may modify the returned object.
+	 */
+	private static boolean isImmutable(Class<?> type)
+	{
+		return type.isPrimitive()
+			|| type.isEnum()
+			|| type == String.class
+			|| type == Boolean.class
+			|| type == Integer.class
+			|| type == Color.class
+			|| Keybind.class.isAssignableFrom(type)
+			|| type == WorldPoint.class
+			|| type == Instant.class
+			|| type == Duration.class;
+	}
+}
@@ -28,13 +28,16 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class ConfigInvocationHandler implements InvocationHandler
 {
 	private final ConfigManager manager;
+	private final Map<Method, CachedConfigValue> cachedValues = new ConcurrentHashMap<>();
 
 	public ConfigInvocationHandler(ConfigManager manager)
 	{
@@ -44,6 +47,21 @@ class ConfigInvocationHandler implements InvocationHandler
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
+		if (args == null)
+		{
+			final CachedConfigValue cached = cachedValues.get(method);
+
+			if (cached != null)
+			{
+				final Object value = cached.get();
+
+				if (value != CachedConfigValue.MISSING)
+				{
+					return value;
+				}
+			}
+		}
+
 		Class<?> iface = proxy.getClass().getInterfaces()[0];
 
 		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
@@ -63,35 +81,12 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		if (args == null)
 		{
-			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
-
-			if (value == null)
-			{
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-
-				return null;
-			}
-
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-
-			try
-			{
-				return ConfigManager.stringToObject(value, returnType);
-			}
-			catch (Exception e)
-			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
-			}
+			final CachedConfigValue cached = cachedValues.computeIfAbsent(method, m ->
+				manager.createCachedValue(group.value(), item.keyName(), m.getReturnType()));
+			final int generation = cached.getGeneration();
+			final Object value = getConfigValue(proxy, method, group, item);
+			cached.set(value, generation);
+			return value;
 		}
 		else
 		{
@@ -138,6 +133,39 @@ class ConfigInvocationHandler implements InvocationHandler
 		}
 	}
 
+	private Object getConfigValue(Object proxy, Method method, ConfigGroup group, ConfigItem item) throws Throwable
+	{
+		// Getting configuration item
+		String value = manager.getConfiguration(group.value(), item.keyName());
+
+		if (value == null)
+		{
+			if (method.isDefault())
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+
+			return null;
+		}
+
+		// Convert value to return type
+		Class<?> returnType = method.getReturnType();
+
+		try
+		{
+			return ConfigManager.stringToObject(value, returnType);
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
+			if (method.isDefault())
+			{
+				return callDefaultMethod(proxy, method, null);
+			}
+			return null;
+		}
+	}
+
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
@@ -33,15 +33,11 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
-import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
@@ -53,8 +49,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -82,6 +81,10 @@ public class ConfigManager
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
 	private final Properties properties = new Properties();
 	private final Map<String, String> pendingChanges = new HashMap<>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private final ConfigStorage storage = new ConfigStorage(SETTINGS_FILE);
+	private final ProfileIndex profileIndex = new ProfileIndex(PROFILES_DIR, STANDARD_SETTINGS_FILE_NAME);
+	private final Map<String, List<CachedConfigValue>> cachedValues = new ConcurrentHashMap<>();
 
 	@Inject
 	public ConfigManager(ScheduledExecutorService scheduledExecutorService)
@@ -155,22 +158,26 @@ public class ConfigManager
 
 	private synchronized void loadFromFile()
 	{
+		// Make sure the log has every change made to the old configuration before reading it back
+		flushPendingChanges();
+
 		properties.clear();
 
-		try (FileInputStream in = new FileInputStream(SETTINGS_FILE))
-		{
-			properties.load(new InputStreamReader(in, Charset.forName("UTF-8")));
-		}
-		catch (FileNotFoundException ex)
+		try
 		{
-			log.debug("Unable to load settings - no such file, syncing from standard settings");
-			syncLastModified();
+			if (!storage.load(properties))
+			{
+				log.debug("Unable to load settings - no such file, syncing from standard settings");
+				syncLastModified();
+			}
 		}
 		catch (IllegalArgumentException | IOException ex)
 		{
 			log.warn("Unable to load settings", ex);
 		}
 
+		invalidateCachedValues();
+
 		try
 		{
 			Map<String, String> copy = (Map) ImmutableMap.copyOf(properties);
@@ -203,20 +210,60 @@ public class ConfigManager
 
 	private void saveToFile() throws IOException
 	{
-		ConfigManager.SETTINGS_FILE.getParentFile().mkdirs();
+		synchronized (storage)
+		{
+			// Everything in the log must also be in the snapshot, so append the outstanding changes first
+			final boolean changed = flushPendingChanges();
+
+			if (changed || storage.hasPendingLog())
+			{
+				storage.compact((Properties) properties.clone());
+			}
+		}
+	}
+
+	/**
+	 * Appends the pending changes to the write-ahead log
+	 *
+	 * @return true if there were pending changes
+	 */
+	private boolean flushPendingChanges()
+	{
+		flushScheduled.set(false);
 
-		try (FileOutputStream out = new FileOutputStream(ConfigManager.SETTINGS_FILE))
+		// Hold the storage lock while draining so batches are appended in the order they were drained
+		synchronized (storage)
 		{
-			final FileLock lock = out.getChannel().lock();
+			final Map<String, String> changes;
+			synchronized (pendingChanges)
+			{
+				if (pendingChanges.isEmpty())
+				{
+					return false;
+				}
+
+				changes = new HashMap<>(pendingChanges);
+				pendingChanges.clear();
+			}
 
 			try
 			{
-				properties.store(new OutputStreamWriter(out, Charset.forName("UTF-8")), "RuneLite configuration");
+				storage.append(changes);
 			}
-			finally
+			catch (IOException ex)
 			{
-				lock.release();
+				log.warn("unable to append configuration changes", ex);
 			}
+
+			return true;
+		}
+	}
+
+	private void scheduleFlush()
+	{
+		if (flushScheduled.compareAndSet(false, true))
+		{
+			executor.execute(this::flushPendingChanges);
 		}
 	}
 
@@ -264,20 +311,25 @@ public class ConfigManager
 
 	public void setConfiguration(String groupName, String key, String value)
 	{
-		String oldValue = (String) properties.setProperty(groupName + "." + key, value);
+		final String groupAndKey = groupName + "." + key;
+		String oldValue = (String) properties.setProperty(groupAndKey, value);
 
 		if (Objects.equals(oldValue, value))
 		{
 			return;
 		}
 
+		invalidateCachedValues(groupAndKey);
+
 		log.debug("Setting configuration value for {}.{} to {}", groupName, key, value);
 
 		synchronized (pendingChanges)
 		{
-			pendingChanges.put(groupName + "." + key, value);
+			pendingChanges.put(groupAndKey, value);
 		}
 
+		scheduleFlush();
+
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
 		configChanged.setKey(key);
@@ -294,20 +346,25 @@ public class ConfigManager
 
 	public void unsetConfiguration(String groupName, String key)
 	{
-		String oldValue = (String) properties.remove(groupName + "." + key);
+		final String groupAndKey = groupName + "." + key;
+		String oldValue = (String) properties.remove(groupAndKey);
 
 		if (oldValue == null)
 		{
 			return;
 		}
 
+		invalidateCachedValues(groupAndKey);
+
 		log.debug("Unsetting configuration value for {}.{}", groupName, key);
 
 		synchronized (pendingChanges)
 		{
-			pendingChanges.put(groupName + "." + key, null);
+			pendingChanges.put(groupAndKey, null);
 		}
 
+		scheduleFlush();
+
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
 		configChanged.setKey(key);
@@ -316,6 +373,37 @@ public class ConfigManager
 		eventBus.post(configChanged);
 	}
 
+	/**
+	 * Creates a cache for the parsed value of a configuration getter. The cache is invalidated whenever
+	 * the key is set, unset or the configuration is reloaded.
+	 */
+	CachedConfigValue createCachedValue(String groupName, String key, Class<?> type)
+	{
+		final CachedConfigValue cached = new CachedConfigValue(groupName + "." + key, type);
+
+		if (cached.isCacheable())
+		{
+			cachedValues.computeIfAbsent(cached.getGroupAndKey(), k -> new CopyOnWriteArrayList<>()).add(cached);
+		}
+
+		return cached;
+	}
+
+	private void invalidateCachedValues(String groupAndKey)
+	{
+		final List<CachedConfigValue> values = cachedValues.get(groupAndKey);
+
+		if (values != null)
+		{
+			values.forEach(CachedConfigValue::invalidate);
+		}
+	}
+
+	private void invalidateCachedValues()
+	{
+		cachedValues.values().forEach(values -> values.forEach(CachedConfigValue::invalidate));
+	}
+
 	public ConfigDescriptor getConfigDescriptor(Object configurationProxy)
 	{
 		Class<?> inter = configurationProxy.getClass().getInterfaces()[0];
@@ -578,51 +666,18 @@ public class ConfigManager
 
 	public void sendConfig()
 	{
-		boolean changed;
-		synchronized (pendingChanges)
+		try
 		{
-			changed = !pendingChanges.isEmpty();
-			pendingChanges.clear();
+			saveToFile();
 		}
-
-		if (changed)
+		catch (IOException ex)
 		{
-			try
-			{
-				saveToFile();
-			}
-			catch (IOException ex)
-			{
-				log.warn("unable to save configuration file", ex);
-			}
+			log.warn("unable to save configuration file", ex);
 		}
 	}
 
 	private void syncLastModified()
 	{
-		File newestFile;
-
-		newestFile = STANDARD_SETTINGS_FILE;
-
-		for (File profileDir : PROFILES_DIR.listFiles())
-		{
-			if (!profileDir.isDirectory())
-			{
-				continue;
-			}
-
-			for (File settings : profileDir.listFiles())
-			{
-				if (!settings.getName().equals(STANDARD_SETTINGS_FILE_NAME) ||
-					settings.lastModified() < newestFile.lastModified())
-				{
-					continue;
-				}
-
-				newestFile = settings;
-			}
-		}
-
-		syncPropertiesFromFile(newestFile);
+		syncPropertiesFromFile(profileIndex.findNewest(STANDARD_SETTINGS_FILE));
 	}
 }
\ No newline at end of file
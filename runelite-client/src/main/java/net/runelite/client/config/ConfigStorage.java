@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists configuration as a properties file plus a write-ahead log of the changes made since
+ * the properties file was last written.
+ * <p>
+ * Changes are appended to the log as they happen, which is cheap and loses nothing if the client
+ * crashes. The log is periodically compacted by writing a full snapshot to a temporary file,
+ * renaming it over the properties file and then deleting the log.
+ */
+@Slf4j
+class ConfigStorage
+{
+	private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+	private final File settingsFile;
+	private final File logFile;
+
+	ConfigStorage(File settingsFile)
+	{
+		this.settingsFile = settingsFile;
+		this.logFile = new File(settingsFile.getParentFile(), settingsFile.getName() + ".wal");
+	}
+
+	/**
+	 * Loads the properties file and replays the write-ahead log on top of it
+	 *
+	 * @param properties properties to load into
+	 * @return false if there is neither a properties file nor a log
+	 */
+	synchronized boolean load(Properties properties) throws IOException
+	{
+		final boolean hasSettings = settingsFile.exists();
+		final boolean hasLog = logFile.exists();
+
+		if (hasSettings)
+		{
+			try (FileInputStream in = new FileInputStream(settingsFile))
+			{
+				properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			}
+		}
+
+		if (hasLog)
+		{
+			final int replayed = replay(properties);
+			log.debug("Replayed {} configuration changes from {}", replayed, logFile);
+		}
+
+		return hasSettings || hasLog;
+	}
+
+	/**
+	 * Appends changes to the write-ahead log
+	 *
+	 * @param changes changed keys, mapped to null if the key was unset
+	 */
+	synchronized void append(Map<String, String> changes) throws IOException
+	{
+		if (changes.isEmpty())
+		{
+			return;
+		}
+
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final DataOutputStream data = new DataOutputStream(buffer);
+		final ByteArrayOutputStream record = new ByteArrayOutputStream();
+		final DataOutputStream recordOut = new DataOutputStream(record);
+		final CRC32 crc = new CRC32();
+
+		for (Map.Entry<String, String> entry : changes.entrySet())
+		{
+			record.reset();
+			writeString(recordOut, entry.getKey());
+			recordOut.writeBoolean(entry.getValue() != null);
+			if (entry.getValue() != null)
+			{
+				writeString(recordOut, entry.getValue());
+			}
+
+			crc.reset();
+			crc.update(record.toByteArray());
+
+			data.writeInt(record.size());
+			data.writeInt((int) crc.getValue());
+			record.writeTo(data);
+		}
+
+		logFile.getParentFile().mkdirs();
+
+		try (FileOutputStream out = new FileOutputStream(logFile, true))
+		{
+			buffer.writeTo(out);
+			out.getChannel().force(false);
+		}
+	}
+
+	/**
+	 * @return true if there are changes in the log which are not in the properties file
+	 */
+	synchronized boolean hasPendingLog()
+	{
+		return logFile.length() > 0;
+	}
+
+	/**
+	 * Replaces the properties file with a snapshot and discards the log. Callers must have appended
+	 * every change they know of before taking the snapshot, so the log never contains a change newer
+	 * than the snapshot.
+	 *
+	 * @param snapshot complete configuration to write
+	 */
+	synchronized void compact(Properties snapshot) throws IOException
+	{
+		final File parent = settingsFile.getParentFile();
+		parent.mkdirs();
+
+		final File tmp = File.createTempFile(settingsFile.getName(), ".tmp", parent);
+
+		try
+		{
+			try (FileOutputStream out = new FileOutputStream(tmp))
+			{
+				snapshot.store(new OutputStreamWriter(out, StandardCharsets.UTF_8), "RuneLite configuration");
+				out.getChannel().force(true);
+			}
+
+			try
+			{
+				Files.move(tmp.toPath(), settingsFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				log.debug("Atomic move not supported, falling back to a non-atomic move", ex);
+				Files.move(tmp.toPath(), settingsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(tmp.toPath());
+		}
+
+		Files.deleteIfExists(logFile.toPath());
+	}
+
+	/**
+	 * Replays the write-ahead log, then truncates anything after the last intact record so that
+	 * later appends are not written after a corrupt or torn record, where they would never be replayed.
+	 */
+	private int replay(Properties properties) throws IOException
+	{
+		int replayed = 0;
+		long validLength = 0;
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(logFile)))
+		{
+			final DataInputStream data = new DataInputStream(in);
+			final CRC32 crc = new CRC32();
+
+			while (true)
+			{
+				final byte[] record;
+
+				try
+				{
+					final int length = data.readInt();
+					final int checksum = data.readInt();
+
+					if (length < 0 || length > MAX_RECORD_LENGTH)
+					{
+						log.warn("Corrupt record in {}, ignoring the rest of the log", logFile);
+						break;
+					}
+
+					record = new byte[length];
+					data.readFully(record);
+
+					crc.reset();
+					crc.update(record);
+
+					if ((int) crc.getValue() != checksum)
+					{
+						log.warn("Corrupt record in {}, ignoring the rest of the log", logFile);
+						break;
+					}
+				}
+				catch (EOFException ex)
+				{
+					// End of the log, or a record torn by a crash while it was being written
+					break;
+				}
+
+				final DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+				final String key = readString(recordIn);
+
+				if (recordIn.readBoolean())
+				{
+					properties.setProperty(key, readString(recordIn));
+				}
+				else
+				{
+					properties.remove(key);
+				}
+
+				++replayed;
+				validLength += 8 + record.length;
+			}
+		}
+
+		if (validLength < logFile.length())
+		{
+			log.debug("Truncating {} to its last intact record at {} bytes", logFile, validLength);
+
+			try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE))
+			{
+				channel.truncate(validLength);
+				channel.force(false);
+			}
+		}
+
+		return replayed;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException
+	{
+		final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException
+	{
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the settings files of the profiles in a profiles directory. The profiles directory is
+ * only listed again when its modification time changes, which happens when a profile is added or
+ * removed, so finding the newest settings file costs one stat per profile.
+ */
+class ProfileIndex
+{
+	private final File profilesDir;
+	private final String settingsFileName;
+
+	private long indexedModified = -1;
+	private List<File> settingsFiles = Collections.emptyList();
+
+	ProfileIndex(File profilesDir, String settingsFileName)
+	{
+		this.profilesDir = profilesDir;
+		this.settingsFileName = settingsFileName;
+	}
+
+	/**
+	 * Finds the most recently modified settings file
+	 *
+	 * @param fallback file to use if no profile has a newer settings file
+	 * @return the newest settings file
+	 */
+	synchronized File findNewest(File fallback)
+	{
+		refresh();
+
+		File newest = fallback;
+		long newestModified = fallback.lastModified();
+
+		for (File settings : settingsFiles)
+		{
+			final long modified = settings.lastModified();
+
+			// lastModified is 0 if the profile has no settings file
+			if (modified == 0 || modified < newestModified)
+			{
+				continue;
+			}
+
+			newest = settings;
+			newestModified = modified;
+		}
+
+		return newest;
+	}
+
+	private void refresh()
+	{
+		final long modified = profilesDir.lastModified();
+
+		if (modified == indexedModified)
+		{
+			return;
+		}
+
+		final File[] profileDirs = profilesDir.listFiles(File::isDirectory);
+		final List<File> files = new ArrayList<>();
+
+		if (profileDirs != null)
+		{
+			for (File profileDir : profileDirs)
+			{
+				files.add(new File(profileDir, settingsFileName));
+			}
+		}
+
+		settingsFiles = files;
+		indexedModified = modified;
+	}
+}
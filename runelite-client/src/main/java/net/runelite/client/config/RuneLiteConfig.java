@@ -283,4 +283,37 @@ public interface RuneLiteConfig extends Config
 	{
 		return 35;
 	}
+
+	@ConfigItem(
+		keyName = "lazyLoadPlugins",
+		name = "Lazy load disabled plugins",
+		description = "Only load disabled plugins once they are enabled, which uses less memory.<br>Requires a restart.",
+		position = 43
+	)
+	default boolean lazyLoadPlugins()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "overlayFrameBudget",
+		name = "Overlay frame budget (ms)",
+		description = "Time overlays may take each frame before low priority overlays are drawn less often. 0 disables the budget",
+		position = 44
+	)
+	default int overlayFrameBudget()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "profileEventBus",
+		name = "Profile event subscribers",
+		description = "Records the time spent in each event subscriber and periodically writes the slowest to the client log",
+		position = 45
+	)
+	default boolean profileEventBus()
+	{
+		return false;
+	}
 }
@@ -26,25 +26,33 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.ReflectUtil;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -62,9 +70,20 @@ public class EventBus
 	{
 		private final Object object;
 		private final Method method;
+		private final float priority;
 		@EqualsAndHashCode.Exclude
 		private final SubscriberMethod lamda;
 
+		@EqualsAndHashCode.Exclude
+		@ToString.Exclude
+		private final LongAdder invocations = new LongAdder();
+		@EqualsAndHashCode.Exclude
+		@ToString.Exclude
+		private final LongAdder totalNanos = new LongAdder();
+		@EqualsAndHashCode.Exclude
+		@ToString.Exclude
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
 		void invoke(final Object arg) throws Exception
 		{
 			if (lamda != null)
@@ -76,10 +95,53 @@ public class EventBus
 				method.invoke(object, arg);
 			}
 		}
+
+		void record(final long nanos)
+		{
+			invocations.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		void resetTimings()
+		{
+			invocations.reset();
+			totalNanos.reset();
+			maxNanos.reset();
+		}
 	}
 
+	/**
+	 * Dense slot allocated to each event class the first time it is seen by any bus. The slot indexes into
+	 * {@link #dispatchTable} so posting does not need to hash the event class.
+	 */
+	private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+	private static final ClassValue<Integer> EVENT_SLOTS = new ClassValue<Integer>()
+	{
+		@Override
+		protected Integer computeValue(Class<?> type)
+		{
+			return NEXT_SLOT.getAndIncrement();
+		}
+	};
+
+	private static final Subscriber[][] EMPTY_TABLE = new Subscriber[0][];
+
 	private final Consumer<Throwable> exceptionHandler;
-	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
+
+	/**
+	 * Subscribers indexed by event slot. Both the table and the per-slot arrays are copy-on-write, so
+	 * registering only copies the arrays of the event types the new subscriber listens to.
+	 */
+	private volatile Subscriber[][] dispatchTable = EMPTY_TABLE;
+
+	/**
+	 * Whether subscriber invocations are timed. Timings are kept per subscriber, and each subscriber
+	 * handles exactly one event type.
+	 */
+	@Getter
+	@Setter
+	private volatile boolean profiling;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -98,13 +160,181 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class, Subscriber> builder = ImmutableMultimap.builder();
+		final Map<Class<?>, List<Subscriber>> added = new LinkedHashMap<>();
+		collectSubscribers(object, added);
+		publish(added);
+	}
+
+	/**
+	 * Registers all provided subscribers to EventBus, publishing the new subscriptions at once. If any of the
+	 * subscribers is invalid, none of them are registered.
+	 *
+	 * @param objects subscribers to register
+	 * @throws IllegalArgumentException in case subscriber method name is wrong (correct format is 'on' + EventName
+	 */
+	public synchronized void registerAll(@Nonnull final Collection<?> objects)
+	{
+		final Map<Class<?>, List<Subscriber>> added = new LinkedHashMap<>();
+
+		for (final Object object : objects)
+		{
+			collectSubscribers(object, added);
+		}
+
+		publish(added);
+	}
+
+	/**
+	 * Unregisters all subscribed methods from provided subscriber object.
+	 *
+	 * @param object object to unsubscribe from
+	 */
+	public synchronized void unregister(@Nonnull final Object object)
+	{
+		final Subscriber[][] table = dispatchTable.clone();
+		boolean changed = false;
+
+		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
+		{
+			for (final Method method : clazz.getDeclaredMethods())
+			{
+				final Subscribe sub = method.getAnnotation(Subscribe.class);
+
+				if (sub == null || method.getParameterCount() != 1)
+				{
+					continue;
+				}
+
+				final int slot = EVENT_SLOTS.get(method.getParameterTypes()[0]);
+				final Subscriber[] eventSubscribers = slot < table.length ? table[slot] : null;
+
+				if (eventSubscribers == null)
+				{
+					continue;
+				}
+
+				final Subscriber[] remaining = Arrays.stream(eventSubscribers)
+					.filter(s -> s.getObject() != object)
+					.toArray(Subscriber[]::new);
+
+				if (remaining.length != eventSubscribers.length)
+				{
+					table[slot] = remaining.length == 0 ? null : remaining;
+					changed = true;
+				}
+			}
+		}
+
+		if (changed)
+		{
+			dispatchTable = table;
+		}
+	}
+
+	/**
+	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately, ordered by
+	 * {@link Subscribe#priority()} and then in order in which subscribers were registered.
+	 *
+	 * @param event event to post
+	 */
+	public void post(@Nonnull final Object event)
+	{
+		final Subscriber[][] table = dispatchTable;
+		final int slot = EVENT_SLOTS.get(event.getClass());
+
+		if (slot >= table.length)
+		{
+			return;
+		}
+
+		final Subscriber[] eventSubscribers = table[slot];
+
+		if (eventSubscribers == null)
+		{
+			return;
+		}
+
+		final boolean profiling = this.profiling;
+
+		for (final Subscriber subscriber : eventSubscribers)
+		{
+			try
+			{
+				if (profiling)
+				{
+					final long start = System.nanoTime();
+					subscriber.invoke(event);
+					subscriber.record(System.nanoTime() - start);
+				}
+				else
+				{
+					subscriber.invoke(event);
+				}
+			}
+			catch (Exception e)
+			{
+				exceptionHandler.accept(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the timings of all registered subscribers. Timings are only recorded while
+	 * profiling is enabled.
+	 *
+	 * @return subscriber timings
+	 */
+	public List<SubscriberTiming> getSubscriberTimings()
+	{
+		final List<SubscriberTiming> timings = new ArrayList<>();
+
+		for (final Subscriber[] eventSubscribers : dispatchTable)
+		{
+			if (eventSubscribers == null)
+			{
+				continue;
+			}
+
+			for (final Subscriber subscriber : eventSubscribers)
+			{
+				final Method method = subscriber.getMethod();
+				timings.add(new SubscriberTiming(
+					method.getParameterTypes()[0],
+					method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+					subscriber.getInvocations().sum(),
+					subscriber.getTotalNanos().sum(),
+					subscriber.getMaxNanos().get()));
+			}
+		}
 
-		if (subscribers != null)
+		return timings;
+	}
+
+	/**
+	 * Clears the recorded timings of all registered subscribers.
+	 */
+	public void resetSubscriberTimings()
+	{
+		for (final Subscriber[] eventSubscribers : dispatchTable)
 		{
-			builder.putAll(subscribers);
+			if (eventSubscribers == null)
+			{
+				continue;
+			}
+
+			for (final Subscriber subscriber : eventSubscribers)
+			{
+				subscriber.resetTimings();
+			}
 		}
+	}
 
+	/**
+	 * Validates and binds all {@link Subscribe} methods of the object, adding them to the pending map keyed by
+	 * event class. Nothing is published to the dispatch table.
+	 */
+	private void collectSubscribers(final Object object, final Map<Class<?>, List<Subscriber>> added)
+	{
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
 			for (final Method method : clazz.getDeclaredMethods())
@@ -127,7 +357,7 @@ public class EventBus
 
 				for (Class<?> psc = parameterClazz.getSuperclass(); psc != null; psc = psc.getSuperclass())
 				{
-					if (subscribers.containsKey(psc))
+					if (hasSubscribers(psc) || added.containsKey(psc))
 					{
 						throw new IllegalArgumentException("@Subscribed method \"" + method + "\" cannot subscribe to class which inherits from subscribed class \"" + psc + "\"");
 					}
@@ -141,7 +371,7 @@ public class EventBus
 
 				try
 				{
-					final MethodHandles.Lookup caller = privateLookupIn(clazz);
+					final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
 					final MethodType subscription = MethodType.methodType(void.class, parameterClazz);
 					final MethodHandle target = caller.findVirtual(clazz, method.getName(), subscription);
 					final CallSite site = LambdaMetafactory.metafactory(
@@ -160,90 +390,57 @@ public class EventBus
 					log.warn("Unable to create lambda for method {}", method, e);
 				}
 
-				final Subscriber subscriber = new Subscriber(object, method, lambda);
-				builder.put(parameterClazz, subscriber);
+				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
+				added.computeIfAbsent(parameterClazz, k -> new ArrayList<>()).add(subscriber);
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
 			}
 		}
-
-		subscribers = builder.build();
 	}
 
 	/**
-	 * Unregisters all subscribed methods from provided subscriber object.
-	 *
-	 * @param object object to unsubscribe from
+	 * Merges the pending subscribers into the dispatch table. Only the slots of the affected event classes are
+	 * copied. Must be called with the lock held.
 	 */
-	public synchronized void unregister(@Nonnull final Object object)
+	private void publish(final Map<Class<?>, List<Subscriber>> added)
 	{
-		if (subscribers == null)
+		if (added.isEmpty())
 		{
 			return;
 		}
 
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
-		map.putAll(subscribers);
+		int size = dispatchTable.length;
 
-		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
+		for (final Class<?> eventClass : added.keySet())
 		{
-			for (final Method method : clazz.getDeclaredMethods())
-			{
-				final Subscribe sub = method.getAnnotation(Subscribe.class);
-
-				if (sub == null)
-				{
-					continue;
-				}
-
-				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, null));
-			}
+			size = Math.max(size, EVENT_SLOTS.get(eventClass) + 1);
 		}
 
-		subscribers = ImmutableMultimap.copyOf(map);
-	}
+		final Subscriber[][] table = Arrays.copyOf(dispatchTable, size);
 
-	/**
-	 * Posts provided event to all registered subscribers. Subscriber calls are invoked immediately and in order
-	 * in which subscribers were registered.
-	 *
-	 * @param event event to post
-	 */
-	public void post(@Nonnull final Object event)
-	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		for (final Map.Entry<Class<?>, List<Subscriber>> entry : added.entrySet())
 		{
-			try
-			{
-				subscriber.invoke(event);
-			}
-			catch (Exception e)
+			final int slot = EVENT_SLOTS.get(entry.getKey());
+			final Subscriber[] existing = table[slot] == null ? new Subscriber[0] : table[slot];
+			final List<Subscriber> subscribers = entry.getValue();
+			final Subscriber[] merged = Arrays.copyOf(existing, existing.length + subscribers.size());
+
+			for (int i = 0; i < subscribers.size(); ++i)
 			{
-				exceptionHandler.accept(e);
+				merged[existing.length + i] = subscribers.get(i);
 			}
+
+			// Arrays.sort is stable, so equal priorities keep registration order
+			Arrays.sort(merged, (a, b) -> Float.compare(b.getPriority(), a.getPriority()));
+			table[slot] = merged;
 		}
+
+		dispatchTable = table;
 	}
 
-	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
+	private boolean hasSubscribers(final Class<?> eventClass)
 	{
-		try
-		{
-			// Java 9+ has privateLookupIn method on MethodHandles, but since we are shipping and using Java 8
-			// we need to access it via reflection. This is preferred way because it's Java 9+ public api and is
-			// likely to not change
-			final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
-			return (MethodHandles.Lookup) privateLookupIn.invoke(null, clazz, MethodHandles.lookup());
-		}
-		catch (NoSuchMethodException e)
-		{
-			// In Java 8 we first do standard lookupIn class
-			final MethodHandles.Lookup lookupIn = MethodHandles.lookup().in(clazz);
-
-			// and then we mark it as trusted for private lookup via reflection on private field
-			final Field modes = MethodHandles.Lookup.class.getDeclaredField("allowedModes");
-			modes.setAccessible(true);
-			modes.setInt(lookupIn, -1); // -1 == TRUSTED
-			return lookupIn;
-		}
+		final Subscriber[][] table = dispatchTable;
+		final int slot = EVENT_SLOTS.get(eventClass);
+		return slot < table.length && table[slot] != null;
 	}
 }
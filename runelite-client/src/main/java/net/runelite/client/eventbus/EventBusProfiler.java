@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.events.ConfigChanged;
+import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.task.Schedule;
+
+/**
+ * Turns {@link EventBus} profiling on from the client settings, and periodically logs the
+ * subscribers which took the most time since the previous dump. The counters of the bus are
+ * shared with the event inspector, so rather than resetting them each dump logs the difference
+ * from the previous one.
+ */
+@Slf4j
+@Singleton
+public class EventBusProfiler
+{
+	private static final int SUBSCRIBERS_TO_LOG = 10;
+
+	private final EventBus eventBus;
+	private final RuneLiteConfig runeLiteConfig;
+	// subscriber timings at the previous dump
+	private Map<String, SubscriberTiming> previous = Collections.emptyMap();
+
+	@Inject
+	private EventBusProfiler(EventBus eventBus, RuneLiteConfig runeLiteConfig)
+	{
+		this.eventBus = eventBus;
+		this.runeLiteConfig = runeLiteConfig;
+		eventBus.setProfiling(runeLiteConfig.profileEventBus());
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (!"runelite".equals(event.getGroup()) || !"profileEventBus".equals(event.getKey()))
+		{
+			return;
+		}
+
+		eventBus.setProfiling(runeLiteConfig.profileEventBus());
+		takeSnapshot();
+	}
+
+	@Schedule(
+		period = 1,
+		unit = ChronoUnit.MINUTES,
+		asynchronous = true
+	)
+	public void logSubscriberTimings()
+	{
+		if (!runeLiteConfig.profileEventBus())
+		{
+			return;
+		}
+
+		final Map<String, SubscriberTiming> last = previous;
+		final List<SubscriberTiming> timings = new ArrayList<>();
+		for (final Map.Entry<String, SubscriberTiming> entry : takeSnapshot().entrySet())
+		{
+			final SubscriberTiming timing = entry.getValue();
+			final SubscriberTiming before = last.get(entry.getKey());
+
+			// counters lower than at the previous dump were reset in the event inspector since
+			final SubscriberTiming delta = before == null || timing.getInvocations() < before.getInvocations()
+				|| timing.getTotalNanos() < before.getTotalNanos() ? timing
+				: new SubscriberTiming(timing.getEventClass(), timing.getSubscriber(),
+				timing.getInvocations() - before.getInvocations(),
+				timing.getTotalNanos() - before.getTotalNanos(),
+				timing.getMaxNanos());
+
+			if (delta.getInvocations() > 0)
+			{
+				timings.add(delta);
+			}
+		}
+
+		if (timings.isEmpty())
+		{
+			return;
+		}
+
+		timings.sort(Comparator.comparingLong(SubscriberTiming::getTotalNanos).reversed());
+
+		// the max is kept by the bus, so it covers the time since its counters were last reset
+		final StringBuilder sb = new StringBuilder("Slowest event subscribers in the last minute:");
+		for (final SubscriberTiming timing : timings.subList(0, Math.min(SUBSCRIBERS_TO_LOG, timings.size())))
+		{
+			sb.append(String.format("%n  %-60s %-30s %8d calls %10.2f ms total %10.1f us max",
+				timing.getSubscriber(),
+				timing.getEventClass().getSimpleName(),
+				timing.getInvocations(),
+				timing.getTotalNanos() / 1_000_000.0,
+				timing.getMaxNanos() / 1_000.0));
+		}
+		log.info(sb.toString());
+	}
+
+	/**
+	 * Records the current timings as the base for the next dump. Subscribers of the same class listening
+	 * to the same event share a name, so their timings are combined.
+	 */
+	private synchronized Map<String, SubscriberTiming> takeSnapshot()
+	{
+		final Map<String, SubscriberTiming> snapshot = new HashMap<>();
+		for (final SubscriberTiming timing : eventBus.getSubscriberTimings())
+		{
+			snapshot.merge(timing.getEventClass().getName() + " " + timing.getSubscriber(), timing,
+				(a, b) -> new SubscriberTiming(a.getEventClass(), a.getSubscriber(),
+					a.getInvocations() + b.getInvocations(),
+					a.getTotalNanos() + b.getTotalNanos(),
+					Math.max(a.getMaxNanos(), b.getMaxNanos())));
+		}
+		previous = snapshot;
+		return snapshot;
+	}
+}
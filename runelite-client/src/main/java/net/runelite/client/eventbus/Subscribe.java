@@ -38,4 +38,9 @@ import java.lang.annotation.Target;
 @Documented
 public @interface Subscribe
 {
+	/**
+	 * Subscribers with a higher priority are invoked first. Subscribers with equal priority are invoked
+	 * in the order they were registered.
+	 */
+	float priority() default 0;
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.client.eventbus.Subscribe;
+
+/**
+ * Keeps the Grand Exchange and high alchemy value of each item container, updating only
+ * the slots which change. Values are valid until the container changes or prices are reloaded,
+ * and are dropped once the container no longer exists.
+ * <p>
+ * Must be used from the client thread.
+ */
+@Singleton
+public class ContainerValuationService
+{
+	@Value
+	public static class ContainerValue
+	{
+		private final long gePrice;
+		private final long haPrice;
+	}
+
+	private static class Valuation
+	{
+		private int[] itemIds = new int[0];
+		private int[] quantities = new int[0];
+		private int[] canonicalIds = new int[0];
+		private long[] geValues = new long[0];
+		private long[] haValues = new long[0];
+		private long gePrice;
+		private long haPrice;
+		private int priceGeneration;
+		private ContainerValue value;
+	}
+
+	private final Client client;
+	private final ItemManager itemManager;
+	private final Map<InventoryID, Valuation> valuations = new EnumMap<>(InventoryID.class);
+
+	@Inject
+	private ContainerValuationService(Client client, ItemManager itemManager)
+	{
+		this.client = client;
+		this.itemManager = itemManager;
+	}
+
+	@Subscribe
+	public void onItemContainerChanged(ItemContainerChanged event)
+	{
+		final ItemContainer container = event.getItemContainer();
+		for (InventoryID inventoryID : InventoryID.values())
+		{
+			if (client.getItemContainer(inventoryID) == container)
+			{
+				update(valuations.computeIfAbsent(inventoryID, k -> new Valuation()), container.getItems());
+				return;
+			}
+		}
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		// The containers are cleared on logout and world hops
+		if (event.getGameState() == GameState.LOGIN_SCREEN || event.getGameState() == GameState.HOPPING)
+		{
+			valuations.clear();
+		}
+	}
+
+	/**
+	 * Get the value of everything in an item container
+	 *
+	 * @param inventoryID container to value
+	 * @return the value, or null if the container does not exist
+	 */
+	@Nullable
+	public ContainerValue getValue(InventoryID inventoryID)
+	{
+		final Valuation valuation = getValuation(inventoryID);
+		if (valuation == null)
+		{
+			return null;
+		}
+
+		if (valuation.value == null)
+		{
+			valuation.value = new ContainerValue(valuation.gePrice, valuation.haPrice);
+		}
+		return valuation.value;
+	}
+
+	/**
+	 * Get the value of a range of slots in an item container, such as a single bank tab
+	 *
+	 * @param inventoryID container to value
+	 * @param fromSlot    first slot, inclusive
+	 * @param toSlot      last slot, exclusive
+	 * @return the value, or null if the container does not exist
+	 */
+	@Nullable
+	public ContainerValue getValue(InventoryID inventoryID, int fromSlot, int toSlot)
+	{
+		final Valuation valuation = getValuation(inventoryID);
+		if (valuation == null)
+		{
+			return null;
+		}
+
+		long gePrice = 0;
+		long haPrice = 0;
+		for (int slot = Math.max(0, fromSlot); slot < Math.min(toSlot, valuation.itemIds.length); ++slot)
+		{
+			gePrice += valuation.geValues[slot];
+			haPrice += valuation.haValues[slot];
+		}
+		return new ContainerValue(gePrice, haPrice);
+	}
+
+	@Nullable
+	private Valuation getValuation(InventoryID inventoryID)
+	{
+		assert client.isClientThread() : "getValue must be called on client thread";
+
+		final ItemContainer container = client.getItemContainer(inventoryID);
+		if (container == null)
+		{
+			valuations.remove(inventoryID);
+			return null;
+		}
+
+		Valuation valuation = valuations.get(inventoryID);
+		if (valuation == null)
+		{
+			// Not changed since it was last dropped, so value what is there now
+			valuation = new Valuation();
+			update(valuation, container.getItems());
+			valuations.put(inventoryID, valuation);
+		}
+		else if (valuation.priceGeneration != itemManager.getPriceGeneration())
+		{
+			revalue(valuation);
+		}
+		return valuation;
+	}
+
+	private void update(Valuation valuation, Item[] items)
+	{
+		if (valuation.priceGeneration != itemManager.getPriceGeneration())
+		{
+			revalue(valuation);
+		}
+
+		final int oldLength = valuation.itemIds.length;
+		if (items.length != oldLength)
+		{
+			// Take the removed slots out of the totals before they are truncated
+			for (int slot = items.length; slot < oldLength; ++slot)
+			{
+				valuation.gePrice -= valuation.geValues[slot];
+				valuation.haPrice -= valuation.haValues[slot];
+			}
+
+			valuation.itemIds = Arrays.copyOf(valuation.itemIds, items.length);
+			valuation.quantities = Arrays.copyOf(valuation.quantities, items.length);
+			valuation.canonicalIds = Arrays.copyOf(valuation.canonicalIds, items.length);
+			valuation.geValues = Arrays.copyOf(valuation.geValues, items.length);
+			valuation.haValues = Arrays.copyOf(valuation.haValues, items.length);
+			for (int slot = oldLength; slot < items.length; ++slot)
+			{
+				valuation.itemIds[slot] = -1;
+			}
+			valuation.value = null;
+		}
+
+		for (int slot = 0; slot < items.length; ++slot)
+		{
+			final int itemId = items[slot].getId();
+			final int quantity = items[slot].getQuantity();
+			if (valuation.itemIds[slot] == itemId && valuation.quantities[slot] == quantity)
+			{
+				continue;
+			}
+
+			long geValue = 0;
+			long haValue = 0;
+			int canonicalId = -1;
+			if (itemId > 0 && quantity > 0)
+			{
+				canonicalId = itemManager.canonicalize(itemId);
+				geValue = (long) itemManager.getItemPrice(canonicalId) * quantity;
+				haValue = (long) itemManager.getAlchValue(canonicalId) * quantity;
+			}
+
+			valuation.gePrice += geValue - valuation.geValues[slot];
+			valuation.haPrice += haValue - valuation.haValues[slot];
+			valuation.itemIds[slot] = itemId;
+			valuation.quantities[slot] = quantity;
+			valuation.canonicalIds[slot] = canonicalId;
+			valuation.geValues[slot] = geValue;
+			valuation.haValues[slot] = haValue;
+			valuation.value = null;
+		}
+	}
+
+	/**
+	 * Reprice every slot after the prices have been reloaded. High alchemy values do not change.
+	 */
+	private void revalue(Valuation valuation)
+	{
+		long gePrice = 0;
+		for (int slot = 0; slot < valuation.itemIds.length; ++slot)
+		{
+			final int canonicalId = valuation.canonicalIds[slot];
+			final long geValue = canonicalId > 0 ? (long) itemManager.getItemPrice(canonicalId) * valuation.quantities[slot] : 0;
+			valuation.geValues[slot] = geValue;
+			gePrice += geValue;
+		}
+
+		valuation.gePrice = gePrice;
+		valuation.priceGeneration = itemManager.getPriceGeneration();
+		valuation.value = null;
+	}
+}
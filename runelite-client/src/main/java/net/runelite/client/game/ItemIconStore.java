@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Disk store of rendered item icons. Icons are kept as PNGs in a directory per cache revision,
+ * and the directories of other revisions are removed the first time a revision is used.
+ */
+@Slf4j
+class ItemIconStore
+{
+	private final File directory;
+	private volatile int revision;
+
+	ItemIconStore(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * Read a stored icon into the given image
+	 *
+	 * @return true if the icon was stored and has been read
+	 */
+	boolean load(int revision, int itemId, int quantity, boolean stackable, BufferedImage into)
+	{
+		final File file = file(revision, itemId, quantity, stackable);
+		if (!file.exists())
+		{
+			return false;
+		}
+
+		try
+		{
+			final BufferedImage image = ImageIO.read(file);
+			if (image == null || image.getWidth() != into.getWidth() || image.getHeight() != into.getHeight())
+			{
+				return false;
+			}
+
+			final int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+			into.setRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
+			return true;
+		}
+		catch (IOException ex)
+		{
+			log.debug("Unable to read item icon {}", file, ex);
+			return false;
+		}
+	}
+
+	void save(int revision, int itemId, int quantity, boolean stackable, BufferedImage image)
+	{
+		final File file = file(revision, itemId, quantity, stackable);
+		final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+		try
+		{
+			file.getParentFile().mkdirs();
+			ImageIO.write(image, "png", tmp);
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex)
+		{
+			log.debug("Unable to save item icon {}", file, ex);
+		}
+	}
+
+	private File file(int revision, int itemId, int quantity, boolean stackable)
+	{
+		if (this.revision != revision)
+		{
+			purge(revision);
+		}
+
+		return new File(directory, revision + File.separator + itemId + "_" + quantity + (stackable ? "_s" : "") + ".png");
+	}
+
+	/**
+	 * Remove the icons of every other revision, since the models they were rendered from may have changed
+	 */
+	private synchronized void purge(int revision)
+	{
+		if (this.revision == revision)
+		{
+			return;
+		}
+
+		final File[] revisions = directory.listFiles();
+		if (revisions != null)
+		{
+			for (File dir : revisions)
+			{
+				if (dir.getName().equals(Integer.toString(revision)))
+				{
+					continue;
+				}
+
+				final File[] files = dir.listFiles();
+				if (files != null)
+				{
+					for (File file : files)
+					{
+						file.delete();
+					}
+				}
+				dir.delete();
+			}
+		}
+
+		this.revision = revision;
+	}
+}
@@ -24,20 +24,30 @@
  */
 package net.runelite.client.game;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -162,10 +172,12 @@ import static net.runelite.api.ItemID.SPOTTIER_CAPE_10074;
 import net.runelite.api.SpritePixels;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.PostItemComposition;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.http.api.item.ItemClient;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPriceStore;
 import net.runelite.http.api.item.ItemStats;
 
 @Singleton
@@ -192,10 +204,46 @@ public class ItemManager
 	private final ScheduledExecutorService scheduledExecutorService;
 	private final ClientThread clientThread;
 
+	private static final File PRICES_FILE = new File(RuneLite.RUNELITE_DIR, "prices.json");
+	private static final File ICONS_DIR = new File(RuneLite.RUNELITE_DIR, "icons");
+	/**
+	 * Size of the in memory item icon cache, in bytes
+	 */
+	private static final long ICON_CACHE_BYTES = 8 * 1024 * 1024;
+	/**
+	 * Number of icon reads which may wait for the disk before icons are rendered instead
+	 */
+	private static final int ICON_DISK_QUEUE_SIZE = 256;
+
 	private final ItemClient itemClient = new ItemClient();
-	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	private final ItemPriceStore itemPriceStore = new ItemPriceStore(itemClient, PRICES_FILE);
+	private volatile Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	/**
+	 * Price of every item id up to the highest priced item id, with item mappings already applied
+	 */
+	private volatile int[] priceTable = new int[0];
+	private volatile ItemNameIndex itemNameIndex = ItemNameIndex.EMPTY;
+	private volatile int priceGeneration;
 	private Map<Integer, ItemStats> itemStats = Collections.emptyMap();
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
+	private final ItemIconStore itemIconStore = new ItemIconStore(ICONS_DIR);
+	/**
+	 * Reads and writes the icons on disk, so PNG coding does not hold up the shared executor
+	 */
+	private final ThreadPoolExecutor iconDiskExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+		new ArrayBlockingQueue<>(ICON_DISK_QUEUE_SIZE),
+		new ThreadFactoryBuilder().setNameFormat("item-icon-disk").setDaemon(true).build());
+	/**
+	 * Rendered icons waiting to be written, which are written together by a single task
+	 */
+	private final Map<ImageKey, BufferedImage> pendingIconSaves = new ConcurrentHashMap<>();
+	private final AtomicBoolean iconSaveQueued = new AtomicBoolean();
+	/**
+	 * Revision of the client, read on the client thread. Icons are not kept on disk until it is known.
+	 */
+	private volatile int iconRevision;
+	private final AtomicLong iconDiskHits = new AtomicLong();
+	private final AtomicLong iconDiskMisses = new AtomicLong();
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
 	private final LoadingCache<OutlineKey, BufferedImage> itemOutlines;
 
@@ -272,9 +320,13 @@ public class ItemManager
 		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 30, TimeUnit.MINUTES);
 		scheduledExecutorService.submit(this::loadStats);
 
+		iconDiskExecutor.allowCoreThreadTimeOut(true);
+
 		itemImages = CacheBuilder.newBuilder()
-			.maximumSize(128L)
+			.maximumWeight(ICON_CACHE_BYTES)
+			.weigher((ImageKey key, AsyncBufferedImage image) -> imageBytes(image))
 			.expireAfterAccess(1, TimeUnit.HOURS)
+			.recordStats()
 			.build(new CacheLoader<ImageKey, AsyncBufferedImage>()
 			{
 				@Override
@@ -311,17 +363,23 @@ public class ItemManager
 
 	private void loadPrices()
 	{
+		if (itemPriceStore.getEpoch() == 0)
+		{
+			// Use the prices from the last session until the sync completes
+			ItemPrice[] prices = itemPriceStore.load();
+			if (prices != null)
+			{
+				setPrices(prices);
+				log.debug("Loaded {} prices from snapshot", prices.length);
+			}
+		}
+
 		try
 		{
-			ItemPrice[] prices = itemClient.getPrices();
+			ItemPrice[] prices = itemPriceStore.sync();
 			if (prices != null)
 			{
-				ImmutableMap.Builder<Integer, ItemPrice> map = ImmutableMap.builderWithExpectedSize(prices.length);
-				for (ItemPrice price : prices)
-				{
-					map.put(price.getId(), price);
-				}
-				itemPrices = map.build();
+				setPrices(prices);
 			}
 
 			log.debug("Loaded {} prices", itemPrices.size());
@@ -332,6 +390,32 @@ public class ItemManager
 		}
 	}
 
+	@VisibleForTesting
+	void setPrices(ItemPrice[] prices)
+	{
+		ImmutableMap.Builder<Integer, ItemPrice> map = ImmutableMap.builderWithExpectedSize(prices.length);
+		int maxId = Math.max(ItemID.COINS_995, ItemID.PLATINUM_TOKEN);
+		for (ItemPrice price : prices)
+		{
+			map.put(price.getId(), price);
+			maxId = Math.max(maxId, price.getId());
+		}
+
+		final Map<Integer, ItemPrice> itemPrices = map.build();
+
+		// Resolve the mappings of every item up front so a price lookup is a single array read
+		final int[] priceTable = new int[maxId + 1];
+		for (int itemId = 0; itemId < priceTable.length; ++itemId)
+		{
+			priceTable[itemId] = lookupItemPrice(itemPrices, itemId);
+		}
+
+		this.itemPrices = itemPrices;
+		this.priceTable = priceTable;
+		this.itemNameIndex = new ItemNameIndex(itemPrices.values());
+		++priceGeneration;
+	}
+
 	private void loadStats()
 	{
 		try
@@ -358,6 +442,8 @@ public class ItemManager
 		{
 			itemCompositions.invalidateAll();
 		}
+
+		iconRevision = client.getRevision();
 	}
 
 	@Subscribe
@@ -376,6 +462,15 @@ public class ItemManager
 		itemCompositions.invalidateAll();
 	}
 
+	/**
+	 * Get a number which changes every time the item prices are reloaded, so values computed from
+	 * the previous prices can be detected as stale
+	 */
+	public int getPriceGeneration()
+	{
+		return priceGeneration;
+	}
+
 	/**
 	 * Look up an item's price
 	 *
@@ -383,6 +478,27 @@ public class ItemManager
 	 * @return item price
 	 */
 	public int getItemPrice(int itemID)
+	{
+		final int[] priceTable = this.priceTable;
+
+		if (itemID >= 0 && itemID < priceTable.length)
+		{
+			return priceTable[itemID];
+		}
+
+		// Items newer than any priced item can still be mapped to one
+		return lookupItemPrice(itemPrices, itemID);
+	}
+
+	/**
+	 * Look up an item's price by resolving its mappings
+	 *
+	 * @param itemPrices item prices by item id
+	 * @param itemID     item id
+	 * @return item price
+	 */
+	@VisibleForTesting
+	static int lookupItemPrice(Map<Integer, ItemPrice> itemPrices, int itemID)
 	{
 		if (itemID == ItemID.COINS_995)
 		{
@@ -396,7 +512,7 @@ public class ItemManager
 		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
 		if (p != null)
 		{
-			return getItemPrice(p.getPriceID()) * p.getQuantity();
+			return lookupItemPrice(itemPrices, p.getPriceID()) * p.getQuantity();
 		}
 
 		int price = 0;
@@ -446,25 +562,16 @@ public class ItemManager
 	}
 
 	/**
-	 * Search for tradeable items based on item name
+	 * Search for tradeable items based on item name. Exact matches are first, followed by
+	 * names starting with the search, names with a word starting with it, and then any other
+	 * name containing it.
 	 *
 	 * @param itemName item name
-	 * @return
+	 * @return matching items, best match first
 	 */
 	public List<ItemPrice> search(String itemName)
 	{
-		itemName = itemName.toLowerCase();
-
-		List<ItemPrice> result = new ArrayList<>();
-		for (ItemPrice itemPrice : itemPrices.values())
-		{
-			final String name = itemPrice.getName();
-			if (name.toLowerCase().contains(itemName))
-			{
-				result.add(itemPrice);
-			}
-		}
-		return result;
+		return itemNameIndex.search(itemName);
 	}
 
 	/**
@@ -508,6 +615,40 @@ public class ItemManager
 	private AsyncBufferedImage loadImage(int itemId, int quantity, boolean stackable)
 	{
 		AsyncBufferedImage img = new AsyncBufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		final int revision = iconRevision;
+		if (revision <= 0)
+		{
+			renderImage(img, itemId, quantity, stackable);
+			return img;
+		}
+
+		try
+		{
+			iconDiskExecutor.execute(() ->
+			{
+				if (itemIconStore.load(revision, itemId, quantity, stackable, img))
+				{
+					iconDiskHits.incrementAndGet();
+					img.changed();
+					return;
+				}
+
+				iconDiskMisses.incrementAndGet();
+				renderImage(img, itemId, quantity, stackable);
+			});
+		}
+		catch (RejectedExecutionException ex)
+		{
+			// Too many icons are already waiting for the disk, rendering is quicker
+			iconDiskMisses.incrementAndGet();
+			renderImage(img, itemId, quantity, stackable);
+		}
+		return img;
+	}
+
+	private void renderImage(AsyncBufferedImage img, int itemId, int quantity, boolean stackable)
+	{
+		// Loading many images at once, such as when opening the bank, should not stall a frame
 		clientThread.invoke(() ->
 		{
 			if (client.getGameState().ordinal() < GameState.LOGIN_SCREEN.ordinal())
@@ -522,9 +663,87 @@ public class ItemManager
 			}
 			sprite.toBufferedImage(img);
 			img.changed();
+
+			iconRevision = client.getRevision();
+			if (iconRevision > 0)
+			{
+				queueIconSave(new ImageKey(itemId, quantity, stackable), img);
+			}
 			return true;
-		});
-		return img;
+		}, ClientThread.Lane.BACKGROUND);
+	}
+
+	private void queueIconSave(ImageKey key, BufferedImage img)
+	{
+		pendingIconSaves.put(key, img);
+
+		if (iconSaveQueued.compareAndSet(false, true))
+		{
+			try
+			{
+				iconDiskExecutor.execute(this::saveIcons);
+			}
+			catch (RejectedExecutionException ex)
+			{
+				// The pending icons are written with the next one which is queued
+				iconSaveQueued.set(false);
+			}
+		}
+	}
+
+	private void saveIcons()
+	{
+		// Cleared first, so icons rendered while these are written queue another save
+		iconSaveQueued.set(false);
+
+		final int revision = iconRevision;
+		final Iterator<Map.Entry<ImageKey, BufferedImage>> it = pendingIconSaves.entrySet().iterator();
+		while (it.hasNext())
+		{
+			final Map.Entry<ImageKey, BufferedImage> entry = it.next();
+			it.remove();
+
+			final ImageKey key = entry.getKey();
+			itemIconStore.save(revision, key.itemId, key.itemQuantity, key.stackable, entry.getValue());
+		}
+	}
+
+	/**
+	 * Round large quantities the same way their stack text is, so icons which render
+	 * identically share a cache entry. Item count models change well below these amounts.
+	 */
+	@VisibleForTesting
+	static int quantityBucket(int quantity)
+	{
+		if (quantity >= 10_000_000)
+		{
+			return quantity / 1_000_000 * 1_000_000;
+		}
+		if (quantity >= 100_000)
+		{
+			return quantity / 1_000 * 1_000;
+		}
+		return quantity;
+	}
+
+	private static int imageBytes(BufferedImage image)
+	{
+		return image.getWidth() * image.getHeight() * Integer.BYTES;
+	}
+
+	/**
+	 * Get the hit and miss counts of the item icon caches
+	 */
+	public ItemIconCacheStats getImageCacheStats()
+	{
+		final CacheStats stats = itemImages.stats();
+		long memoryBytes = 0;
+		for (AsyncBufferedImage image : itemImages.asMap().values())
+		{
+			memoryBytes += imageBytes(image);
+		}
+		return new ItemIconCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), memoryBytes,
+			iconDiskHits.get(), iconDiskMisses.get());
 	}
 
 	/**
@@ -557,7 +776,7 @@ public class ItemManager
 	{
 		try
 		{
-			return itemImages.get(new ImageKey(itemId, quantity, stackable));
+			return itemImages.get(new ImageKey(itemId, quantityBucket(quantity), stackable));
 		}
 		catch (ExecutionException ex)
 		{
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * Index of item names for substring searches. Every 1, 2 and 3 character substring of each
+ * name maps to the sorted ids of the names containing it, so short queries are a single
+ * lookup and longer queries only have to check the intersection of their trigrams.
+ */
+class ItemNameIndex
+{
+	private static final int GRAM_LENGTH = 3;
+
+	private static final int RANK_EXACT = 0;
+	private static final int RANK_PREFIX = 1;
+	private static final int RANK_WORD_PREFIX = 2;
+	private static final int RANK_CONTAINS = 3;
+
+	static final ItemNameIndex EMPTY = new ItemNameIndex(Collections.emptyList());
+
+	/**
+	 * Items ordered by name length, then name, which is the order results are returned in within a rank
+	 */
+	private final ItemPrice[] items;
+	private final String[] names;
+	private final Map<String, int[]> postings;
+
+	ItemNameIndex(Collection<ItemPrice> prices)
+	{
+		items = prices.stream()
+			.filter(price -> price.getName() != null)
+			.sorted(Comparator.comparingInt((ItemPrice price) -> price.getName().length())
+				.thenComparing(ItemPrice::getName)
+				.thenComparingInt(ItemPrice::getId))
+			.toArray(ItemPrice[]::new);
+
+		names = new String[items.length];
+		final Map<String, Postings> builder = new HashMap<>();
+		for (int i = 0; i < items.length; ++i)
+		{
+			final String name = items[i].getName().toLowerCase();
+			names[i] = name;
+
+			for (int start = 0; start < name.length(); ++start)
+			{
+				final int maxEnd = Math.min(name.length(), start + GRAM_LENGTH);
+				for (int end = start + 1; end <= maxEnd; ++end)
+				{
+					builder.computeIfAbsent(name.substring(start, end), k -> new Postings()).add(i);
+				}
+			}
+		}
+
+		postings = new HashMap<>(builder.size() * 4 / 3 + 1);
+		builder.forEach((gram, ids) -> postings.put(gram, ids.toArray()));
+	}
+
+	/**
+	 * Find every item whose name contains the query, ignoring case. Exact matches come first,
+	 * then names starting with the query, then names with a word starting with the query,
+	 * then everything else; shorter names first within each of those.
+	 *
+	 * @param query text to search for
+	 * @return matching items in rank order
+	 */
+	List<ItemPrice> search(String query)
+	{
+		final String lowerQuery = query.toLowerCase();
+		if (lowerQuery.isEmpty())
+		{
+			return new ArrayList<>(Arrays.asList(items));
+		}
+
+		final int[] candidates = candidates(lowerQuery);
+		if (candidates.length == 0)
+		{
+			return new ArrayList<>();
+		}
+
+		// Bucket by rank, which keeps the length order within each rank
+		final int[] ranked = new int[candidates.length];
+		final int[] rankStart = new int[RANK_CONTAINS + 2];
+		final int[] ranks = new int[candidates.length];
+		int matches = 0;
+		for (int i = 0; i < candidates.length; ++i)
+		{
+			final int rank = rank(names[candidates[i]], lowerQuery);
+			ranks[i] = rank;
+			if (rank >= 0)
+			{
+				++rankStart[rank + 1];
+				++matches;
+			}
+		}
+
+		for (int rank = 1; rank < rankStart.length; ++rank)
+		{
+			rankStart[rank] += rankStart[rank - 1];
+		}
+
+		for (int i = 0; i < candidates.length; ++i)
+		{
+			if (ranks[i] >= 0)
+			{
+				ranked[rankStart[ranks[i]]++] = candidates[i];
+			}
+		}
+
+		final List<ItemPrice> result = new ArrayList<>(matches);
+		for (int i = 0; i < matches; ++i)
+		{
+			result.add(items[ranked[i]]);
+		}
+		return result;
+	}
+
+	int size()
+	{
+		return items.length;
+	}
+
+	/**
+	 * Get the ids of the names which may contain the query, in index order
+	 */
+	private int[] candidates(String query)
+	{
+		if (query.length() <= GRAM_LENGTH)
+		{
+			final int[] ids = postings.get(query);
+			return ids != null ? ids : new int[0];
+		}
+
+		final int[][] lists = new int[query.length() - GRAM_LENGTH + 1][];
+		for (int start = 0; start < lists.length; ++start)
+		{
+			final int[] ids = postings.get(query.substring(start, start + GRAM_LENGTH));
+			if (ids == null)
+			{
+				return new int[0];
+			}
+			lists[start] = ids;
+		}
+
+		// Intersect starting from the rarest trigram to keep the working set small
+		Arrays.sort(lists, Comparator.comparingInt(ids -> ids.length));
+		int[] result = lists[0];
+		for (int i = 1; i < lists.length && result.length > 0; ++i)
+		{
+			result = intersect(result, lists[i]);
+		}
+		return result;
+	}
+
+	private static int[] intersect(int[] a, int[] b)
+	{
+		final int[] result = new int[Math.min(a.length, b.length)];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length)
+		{
+			if (a[i] < b[j])
+			{
+				++i;
+			}
+			else if (a[i] > b[j])
+			{
+				++j;
+			}
+			else
+			{
+				result[size++] = a[i];
+				++i;
+				++j;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Rank a name against the query, or -1 if the name does not contain it
+	 */
+	private static int rank(String name, String query)
+	{
+		int index = name.indexOf(query);
+		if (index == -1)
+		{
+			return -1;
+		}
+
+		if (index == 0)
+		{
+			return name.length() == query.length() ? RANK_EXACT : RANK_PREFIX;
+		}
+
+		for (; index != -1; index = name.indexOf(query, index + 1))
+		{
+			if (!Character.isLetterOrDigit(name.charAt(index - 1)))
+			{
+				return RANK_WORD_PREFIX;
+			}
+		}
+
+		return RANK_CONTAINS;
+	}
+
+	private static class Postings
+	{
+		private int[] ids = new int[4];
+		private int size;
+
+		void add(int id)
+		{
+			// Ids are added in increasing order, so a repeated gram in the same name is the last id
+			if (size > 0 && ids[size - 1] == id)
+			{
+				return;
+			}
+
+			if (size == ids.length)
+			{
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+
+		int[] toArray()
+		{
+			return Arrays.copyOf(ids, size);
+		}
+	}
+}
@@ -74,8 +74,21 @@ public class ComparableEntry
 
 	boolean matches(MenuEntry entry)
 	{
-		String opt = Text.standardize(entry.getOption());
+		return matches(entry,
+			Text.standardize(entry.getOption()),
+			Text.standardize(LEVEL_PATTERN.matcher(entry.getTarget()).replaceAll("")));
+	}
 
+	/**
+	 * Match against a menu entry whose option and target have already been standardized
+	 *
+	 * @param entry the menu entry
+	 * @param opt   standardized option of the menu entry
+	 * @param tgt   standardized target of the menu entry, without combat level
+	 * @return whether the entry matches
+	 */
+	boolean matches(MenuEntry entry, String opt, String tgt)
+	{
 		if (strictOption && !opt.equals(option) || !strictOption && !opt.contains(option))
 		{
 			return false;
@@ -83,8 +96,6 @@ public class ComparableEntry
 
 		if (strictTarget || !Strings.isNullOrEmpty(target))
 		{
-			String tgt = Text.standardize(LEVEL_PATTERN.matcher(entry.getTarget()).replaceAll(""));
-
 			if (strictTarget && !tgt.equals(target) || !strictTarget && !tgt.contains(target))
 			{
 				return false;
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import net.runelite.api.MenuEntry;
+
+/**
+ * Index of {@link ComparableEntry}s by their option, so a menu entry is only compared against
+ * entries which can match its option. Strict options are looked up by exact value, non-strict
+ * options are found with an Aho-Corasick automaton run over the menu entry option.
+ */
+class ComparableEntryIndex
+{
+	private final Set<ComparableEntry> entries = new HashSet<>();
+	private final Map<String, List<ComparableEntry>> strictOptions = new HashMap<>();
+	private final Map<String, List<ComparableEntry>> containsOptions = new HashMap<>();
+
+	/**
+	 * Automaton over the keys of containsOptions, rebuilt on the next lookup after they change.
+	 * Entries may be added or removed on another thread while a lookup is running, so lookups read
+	 * this once.
+	 */
+	private volatile Node root;
+
+	private static class Node
+	{
+		private final Map<Character, Node> next = new HashMap<>();
+		private Node fail;
+		private List<ComparableEntry> output = Collections.emptyList();
+	}
+
+	boolean add(ComparableEntry entry)
+	{
+		if (!entries.add(entry))
+		{
+			return false;
+		}
+
+		if (entry.isStrictOption())
+		{
+			strictOptions.computeIfAbsent(entry.getOption(), k -> new ArrayList<>()).add(entry);
+		}
+		else
+		{
+			containsOptions.computeIfAbsent(entry.getOption(), k -> new ArrayList<>()).add(entry);
+			root = null;
+		}
+
+		return true;
+	}
+
+	boolean remove(ComparableEntry entry)
+	{
+		if (!entries.remove(entry))
+		{
+			return false;
+		}
+
+		final Map<String, List<ComparableEntry>> options = entry.isStrictOption() ? strictOptions : containsOptions;
+		final List<ComparableEntry> list = options.get(entry.getOption());
+		list.remove(entry);
+
+		if (list.isEmpty())
+		{
+			options.remove(entry.getOption());
+		}
+
+		if (!entry.isStrictOption())
+		{
+			root = null;
+		}
+
+		return true;
+	}
+
+	boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @return a copy of the indexed entries
+	 */
+	List<ComparableEntry> getEntries()
+	{
+		return new ArrayList<>(entries);
+	}
+
+	/**
+	 * Find an indexed entry matching a menu entry
+	 *
+	 * @param entry  the menu entry
+	 * @param option standardized option of the menu entry
+	 * @param target standardized target of the menu entry, without combat level
+	 * @return the matching entry, or null if there is none
+	 */
+	ComparableEntry find(MenuEntry entry, String option, String target)
+	{
+		ComparableEntry match = first(strictOptions.get(option), entry, option, target);
+
+		if (match != null || containsOptions.isEmpty())
+		{
+			return match;
+		}
+
+		Node root = this.root;
+		if (root == null)
+		{
+			root = build(containsOptions);
+			this.root = root;
+		}
+
+		// Entries with an empty option match everything
+		match = first(root.output, entry, option, target);
+
+		Node node = root;
+		for (int i = 0; match == null && i < option.length(); ++i)
+		{
+			final char c = option.charAt(i);
+
+			while (node != root && !node.next.containsKey(c))
+			{
+				node = node.fail;
+			}
+
+			node = node.next.getOrDefault(c, root);
+
+			if (node != root)
+			{
+				match = first(node.output, entry, option, target);
+			}
+		}
+
+		return match;
+	}
+
+	private static ComparableEntry first(List<ComparableEntry> candidates, MenuEntry entry, String option, String target)
+	{
+		if (candidates == null)
+		{
+			return null;
+		}
+
+		for (ComparableEntry candidate : candidates)
+		{
+			if (candidate.matches(entry, option, target))
+			{
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	private static Node build(Map<String, List<ComparableEntry>> patterns)
+	{
+		final Node root = new Node();
+
+		for (Map.Entry<String, List<ComparableEntry>> pattern : patterns.entrySet())
+		{
+			Node node = root;
+			for (char c : pattern.getKey().toCharArray())
+			{
+				node = node.next.computeIfAbsent(c, k -> new Node());
+			}
+
+			node.output = new ArrayList<>(pattern.getValue());
+		}
+
+		// Breadth first, so the failure node of each node is complete before it is used
+		final Queue<Node> queue = new ArrayDeque<>();
+		for (Node child : root.next.values())
+		{
+			child.fail = root;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty())
+		{
+			final Node node = queue.poll();
+
+			for (Map.Entry<Character, Node> edge : node.next.entrySet())
+			{
+				final char c = edge.getKey();
+				final Node child = edge.getValue();
+
+				Node fail = node.fail;
+				while (fail != root && !fail.next.containsKey(c))
+				{
+					fail = fail.fail;
+				}
+
+				child.fail = fail.next.getOrDefault(c, root);
+
+				// A node also matches every pattern which is a suffix of its own
+				if (child.fail != root && !child.fail.output.isEmpty())
+				{
+					final List<ComparableEntry> output = new ArrayList<>(child.output);
+					output.addAll(child.fail.output);
+					child.output = output;
+				}
+
+				queue.add(child);
+			}
+		}
+
+		return root;
+	}
+}
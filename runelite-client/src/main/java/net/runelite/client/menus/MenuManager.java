@@ -27,14 +27,12 @@ package net.runelite.client.menus;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -68,6 +66,7 @@ public class MenuManager
 	private static final int IDX_LOWER = 4;
 	private static final int IDX_UPPER = 8;
 	static final Pattern LEVEL_PATTERN = Pattern.compile("\\(level-[0-9]*\\)");
+	private static final int MAX_STANDARDIZED_STRINGS = 1024;
 
 	private static MenuEntry CANCEL()
 	{
@@ -91,10 +90,15 @@ public class MenuManager
 	private final Multimap<Integer, WidgetMenuOption> managedMenuOptions = HashMultimap.create();
 	private final Set<String> npcMenuOptions = new HashSet<>();
 
-	private final Set<ComparableEntry> priorityEntries = new HashSet<>();
+	private final ComparableEntryIndex priorityEntries = new ComparableEntryIndex();
 	private final Set<MenuEntry> currentPriorityEntries = new HashSet<>();
 
 	private final Map<ComparableEntry, ComparableEntry> swaps = new HashMap<>();
+	private final ComparableEntryIndex swapEntries = new ComparableEntryIndex();
+
+	// Standardized menu options and targets, keyed by the identity of the strings from the client
+	private final Map<String, String> standardizedOptions = new IdentityHashMap<>();
+	private final Map<String, String> standardizedTargets = new IdentityHashMap<>();
 	private final Set<MenuEntry> originalTypes = new HashSet<>();
 	private final Set<Integer> leftClickObjects = new HashSet<>();
 
@@ -174,62 +178,53 @@ public class MenuManager
 		}
 
 		final MenuEntry newestEntry = menuEntries[menuEntries.length - 1];
-
-		boolean isPrio = false;
-		for (ComparableEntry p : priorityEntries)
-		{
-			if (p.matches(newestEntry))
-			{
-				isPrio = true;
-				break;
-			}
-		}
+		final String newestOption = standardizeOption(newestEntry.getOption());
+		final String newestTarget = standardizeTarget(newestEntry.getTarget());
 
 		// If the last entry was a priority entry, keep track of it
-		if (isPrio)
+		if (!priorityEntries.isEmpty() && priorityEntries.find(newestEntry, newestOption, newestTarget) != null)
 		{
 			currentPriorityEntries.add(newestEntry);
 		}
 
-		// Make a copy of the menu entries, cause you can't remove from Arrays.asList()
-		List<MenuEntry> copy = new ArrayList<>(Arrays.asList(menuEntries));
+		boolean modified = false;
 
 		// If there are entries we want to prioritize, we have to remove the rest
 		if (!currentPriorityEntries.isEmpty())
 		{
-			copy.retainAll(currentPriorityEntries);
-
-			copy.add(0, CANCEL());
+			menuEntries = retainPriorityEntries(menuEntries);
+			modified = true;
 		}
 
 		// Find the current entry in the swaps map
-		ComparableEntry swapEntry = null;
-		for (ComparableEntry e : swaps.keySet())
-		{
-			if (e.matches(newestEntry))
-			{
-				swapEntry = e;
-				break;
-			}
-		}
+		final ComparableEntry swapEntry = swapEntries.isEmpty() ? null : swapEntries.find(newestEntry, newestOption, newestTarget);
 
 		if (swapEntry != null)
 		{
-			ComparableEntry swapTarget = swaps.get(swapEntry);
+			final ComparableEntry swapTarget = swaps.get(swapEntry);
 
 			// Find the target for the swap in current menu entries
-			MenuEntry foundSwap = null;
-			for (MenuEntry entry : Lists.reverse(copy))
+			int index = -1;
+			int newIndex = -1;
+			for (int i = menuEntries.length - 1; i >= 0; --i)
 			{
-				if (swapTarget.matches(entry))
+				final MenuEntry entry = menuEntries[i];
+
+				if (index == -1 && swapTarget.matches(entry, standardizeOption(entry.getOption()), standardizeTarget(entry.getTarget())))
+				{
+					index = i;
+				}
+
+				if (newIndex == -1 && entry.equals(newestEntry))
 				{
-					foundSwap = entry;
-					break;
+					newIndex = i;
 				}
 			}
 
-			if (foundSwap != null)
+			if (index != -1 && newIndex != -1)
 			{
+				final MenuEntry foundSwap = menuEntries[index];
+
 				// This is the menu entry added last's type
 				final int otherType = foundSwap.getType();
 
@@ -245,15 +240,78 @@ public class MenuManager
 				}
 
 				// Swap
-				int index = copy.indexOf(foundSwap);
-				int newIndex = copy.indexOf(newestEntry);
+				menuEntries[index] = newestEntry;
+				menuEntries[newIndex] = foundSwap;
+				modified = true;
+			}
+		}
+
+		if (modified)
+		{
+			client.setMenuEntries(menuEntries);
+		}
+	}
+
+	private MenuEntry[] retainPriorityEntries(MenuEntry[] menuEntries)
+	{
+		int count = 0;
+		for (MenuEntry entry : menuEntries)
+		{
+			if (currentPriorityEntries.contains(entry))
+			{
+				++count;
+			}
+		}
+
+		final MenuEntry[] retained = new MenuEntry[count + 1];
+		retained[0] = CANCEL();
+
+		int i = 1;
+		for (MenuEntry entry : menuEntries)
+		{
+			if (currentPriorityEntries.contains(entry))
+			{
+				retained[i++] = entry;
+			}
+		}
+
+		return retained;
+	}
+
+	private String standardizeOption(String option)
+	{
+		String standardized = standardizedOptions.get(option);
+
+		if (standardized == null)
+		{
+			if (standardizedOptions.size() >= MAX_STANDARDIZED_STRINGS)
+			{
+				standardizedOptions.clear();
+			}
+
+			standardized = Text.standardize(option);
+			standardizedOptions.put(option, standardized);
+		}
 
-				copy.set(index, newestEntry);
-				copy.set(newIndex, foundSwap);
+		return standardized;
+	}
+
+	private String standardizeTarget(String target)
+	{
+		String standardized = standardizedTargets.get(target);
+
+		if (standardized == null)
+		{
+			if (standardizedTargets.size() >= MAX_STANDARDIZED_STRINGS)
+			{
+				standardizedTargets.clear();
 			}
+
+			standardized = Text.standardize(LEVEL_PATTERN.matcher(target).replaceAll(""));
+			standardizedTargets.put(target, standardized);
 		}
 
-		client.setMenuEntries(copy.toArray(new MenuEntry[0]));
+		return standardized;
 	}
 
 	public void addPlayerMenuItem(String menuText)
@@ -599,19 +657,7 @@ public class MenuManager
 
 		ComparableEntry entry = new ComparableEntry(option, target);
 
-		Set<ComparableEntry> toRemove = new HashSet<>();
-		for (ComparableEntry priorityEntry : priorityEntries)
-		{
-			if (entry.equals(priorityEntry))
-			{
-				toRemove.add(entry);
-			}
-		}
-
-		for (ComparableEntry e : toRemove)
-		{
-			priorityEntries.remove(e);
-		}
+		priorityEntries.remove(entry);
 	}
 
 
@@ -634,19 +680,7 @@ public class MenuManager
 
 		ComparableEntry entry = new ComparableEntry(option, "", false);
 
-		Set<ComparableEntry> toRemove = new HashSet<>();
-		for (ComparableEntry priorityEntry : priorityEntries)
-		{
-			if (entry.equals(priorityEntry))
-			{
-				toRemove.add(entry);
-			}
-		}
-
-		for (ComparableEntry e : toRemove)
-		{
-			priorityEntries.remove(e);
-		}
+		priorityEntries.remove(entry);
 	}
 
 	/**
@@ -669,7 +703,7 @@ public class MenuManager
 			return;
 		}
 
-		swaps.put(swapFrom, swapTo);
+		putSwap(swapFrom, swapTo);
 	}
 
 
@@ -711,7 +745,7 @@ public class MenuManager
 			return;
 		}
 
-		swaps.put(swapFrom, swapTo);
+		putSwap(swapFrom, swapTo);
 	}
 
 	/**
@@ -735,7 +769,7 @@ public class MenuManager
 			return;
 		}
 
-		swaps.put(swapFrom, swapTo);
+		putSwap(swapFrom, swapTo);
 	}
 
 	public void removeSwap(String option, String target, int id, int type, String option2, String target2, int id2, int type2)
@@ -749,35 +783,19 @@ public class MenuManager
 		ComparableEntry swapFrom = new ComparableEntry(option, target, id, type, false, false);
 		ComparableEntry swapTo = new ComparableEntry(option2, target2, id2, type2, false, false);
 
-		Set<ComparableEntry> toRemove = new HashSet<>();
-		for (Map.Entry<ComparableEntry, ComparableEntry> e : swaps.entrySet())
+		if (swapTo.equals(swaps.get(swapFrom)))
 		{
-			if (e.getKey().equals(swapFrom) && e.getValue().equals(swapTo))
-			{
-				toRemove.add(e.getKey());
-			}
-		}
-
-		for (ComparableEntry entry : toRemove)
-		{
-			swaps.remove(entry);
+			swaps.remove(swapFrom);
+			swapEntries.remove(swapFrom);
 		}
 	}
 
 	public void removeSwap(ComparableEntry swapFrom, ComparableEntry swapTo)
 	{
-		Set<ComparableEntry> toRemove = new HashSet<>();
-		for (Map.Entry<ComparableEntry, ComparableEntry> e : swaps.entrySet())
+		if (swapTo.equals(swaps.get(swapFrom)))
 		{
-			if (e.getKey().equals(swapFrom) && e.getValue().equals(swapTo))
-			{
-				toRemove.add(e.getKey());
-			}
-		}
-
-		for (ComparableEntry entry : toRemove)
-		{
-			swaps.remove(entry);
+			swaps.remove(swapFrom);
+			swapEntries.remove(swapFrom);
 		}
 	}
 
@@ -788,19 +806,19 @@ public class MenuManager
 	{
 		withTarget = Text.standardize(withTarget);
 
-		Set<ComparableEntry> toRemove = new HashSet<>();
-
-		for (ComparableEntry e : swaps.keySet())
+		for (ComparableEntry e : swapEntries.getEntries())
 		{
 			if (e.getTarget().equals(withTarget))
 			{
-				toRemove.add(e);
+				swaps.remove(e);
+				swapEntries.remove(e);
 			}
 		}
+	}
 
-		for (ComparableEntry entry : toRemove)
-		{
-			swaps.remove(entry);
-		}
+	private void putSwap(ComparableEntry swapFrom, ComparableEntry swapTo)
+	{
+		swaps.put(swapFrom, swapTo);
+		swapEntries.add(swapFrom);
 	}
 }
@@ -41,6 +41,20 @@ public abstract class Plugin implements Module
 	{
 	}
 
+	/**
+	 * Called before {@link #startUp()}, off the event dispatch thread. During client startup this
+	 * may run concurrently with the preStartUp of other plugins and with the startUp of plugins
+	 * earlier in the startup order, so it must not rely on any other plugin having or not having
+	 * started. It runs after the preStartUp of the plugins this plugin depends on. Use it for loading
+	 * files and other work which does not touch Swing or the client.
+	 */
+	protected void preStartUp() throws Exception
+	{
+	}
+
+	/**
+	 * Called on the event dispatch thread when the plugin starts
+	 */
 	protected void startUp() throws Exception
 	{
 	}
@@ -33,22 +33,37 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Binder;
 import com.google.inject.CreationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.gson.JsonParseException;
 import com.google.inject.Module;
+import com.google.inject.Provides;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -71,6 +86,7 @@ import net.runelite.client.task.Schedule;
 import net.runelite.client.task.ScheduledMethod;
 import net.runelite.client.task.Scheduler;
 import net.runelite.client.util.GameEventManager;
+import net.runelite.http.api.RuneLiteAPI;
 
 @Singleton
 @Slf4j
@@ -81,6 +97,18 @@ public class PluginManager
 	 */
 	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins";
 
+	/**
+	 * Manifest of the core plugins, generated at build time by the plugin processor
+	 */
+	private static final String PLUGIN_MANIFEST = "META-INF/runelite/plugins.json";
+
+	/**
+	 * Number of plugins which may be starting at the same time during client startup
+	 */
+	private static final int STARTUP_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final int SLOWEST_STARTUPS_TO_LOG = 10;
+
 	private final boolean developerMode;
 	private final EventBus eventBus;
 	private final Scheduler scheduler;
@@ -157,6 +185,11 @@ public class PluginManager
 	{
 		final Injector injector = plugin.getInjector();
 
+		if (injector == null)
+		{
+			return getLazyPluginConfigProxy(plugin);
+		}
+
 		for (Key<?> key : injector.getAllBindings().keySet())
 		{
 			Class<?> type = key.getTypeLiteral().getRawType();
@@ -169,13 +202,44 @@ public class PluginManager
 		return null;
 	}
 
+	/**
+	 * Gets the config of a plugin which was loaded lazily from its {@link Provides} methods, without
+	 * creating its injector
+	 */
+	private Config getLazyPluginConfigProxy(Plugin plugin)
+	{
+		for (Method method : plugin.getClass().getDeclaredMethods())
+		{
+			if (method.isAnnotationPresent(Provides.class) && Config.class.isAssignableFrom(method.getReturnType()))
+			{
+				return (Config) configManager.getConfig(method.getReturnType());
+			}
+		}
+
+		return null;
+	}
+
 	public List<Config> getPluginConfigProxies()
 	{
 		List<Injector> injectors = new ArrayList<>();
 		injectors.add(RuneLite.getInjector());
-		getPlugins().forEach(pl -> injectors.add(pl.getInjector()));
 
 		List<Config> list = new ArrayList<>();
+		for (Plugin plugin : getPlugins())
+		{
+			if (plugin.getInjector() != null)
+			{
+				injectors.add(plugin.getInjector());
+				continue;
+			}
+
+			final Config config = getLazyPluginConfigProxy(plugin);
+			if (config != null)
+			{
+				list.add(config);
+			}
+		}
+
 		for (Injector injector : injectors)
 		{
 			for (Key<?> key : injector.getAllBindings().keySet())
@@ -202,40 +266,221 @@ public class PluginManager
 
 	public void loadCorePlugins() throws IOException
 	{
-		plugins.addAll(scanAndInstantiate(getClass().getClassLoader(), PLUGIN_PACKAGE));
+		final ClassLoader classLoader = getClass().getClassLoader();
+		final List<Class<?>> pluginClasses = readManifest(classLoader);
+		final boolean lazy = configManager.getConfig(RuneLiteConfig.class).lazyLoadPlugins();
+
+		if (pluginClasses != null)
+		{
+			plugins.addAll(instantiatePlugins(pluginClasses, lazy));
+		}
+		else if (developerMode)
+		{
+			log.info("No plugin manifest found, scanning for plugins");
+			plugins.addAll(instantiatePlugins(scan(classLoader, PLUGIN_PACKAGE), lazy));
+		}
+		else
+		{
+			throw new IOException("Plugin manifest " + PLUGIN_MANIFEST + " not found");
+		}
+	}
+
+	/**
+	 * Reads the plugin manifest generated by the plugin processor at build time
+	 *
+	 * @return the plugin classes to load, or null if there is no manifest
+	 */
+	private List<Class<?>> readManifest(ClassLoader classLoader) throws IOException
+	{
+		final InputStream in = classLoader.getResourceAsStream(PLUGIN_MANIFEST);
+		if (in == null)
+		{
+			return null;
+		}
+
+		final PluginManifestEntry[] entries;
+		try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+		{
+			entries = RuneLiteAPI.GSON.fromJson(reader, PluginManifestEntry[].class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException("Unable to parse plugin manifest", ex);
+		}
+
+		final List<Class<?>> classes = new ArrayList<>(entries.length);
+		for (PluginManifestEntry entry : entries)
+		{
+			// Skip plugins which would not be loaded anyway without loading their class
+			if ((!entry.isLoadWhenOutdated() && isOutdated) || (entry.isDeveloperPlugin() && !developerMode))
+			{
+				continue;
+			}
+
+			try
+			{
+				classes.add(Class.forName(entry.getClassName(), false, classLoader));
+			}
+			catch (ClassNotFoundException ex)
+			{
+				log.warn("Plugin {} in manifest does not exist", entry.getClassName());
+			}
+		}
+
+		log.debug("Read {} plugins from plugin manifest", classes.size());
+		return classes;
 	}
 
 	public void startCorePlugins()
 	{
+		final long start = System.currentTimeMillis();
 		List<Plugin> scannedPlugins = new ArrayList<>(plugins);
-		for (Plugin plugin : scannedPlugins)
+		Map<Class<? extends Plugin>, CompletableFuture<Long>> preStartUps = new HashMap<>();
+		List<Plugin> startedPlugins = new ArrayList<>();
+		Map<Plugin, Long> durations = new HashMap<>();
+
+		final ExecutorService startupExecutor = Executors.newFixedThreadPool(STARTUP_THREADS, new ThreadFactoryBuilder()
+			.setNameFormat("plugin-startup-%d")
+			.setDaemon(true)
+			.build());
+
+		try
 		{
-			try
+			// Plugins are sorted so that dependencies come first, so each plugin only has to wait
+			// for the preStartUps already submitted
+			for (Plugin plugin : scannedPlugins)
 			{
-				startPlugin(plugin);
+				final CompletableFuture<?>[] dependencies = Arrays.stream(plugin.getClass().getAnnotationsByType(PluginDependency.class))
+					.map(dependency -> preStartUps.get(dependency.value()))
+					.filter(Objects::nonNull)
+					.toArray(CompletableFuture[]::new);
+
+				final CompletableFuture<Long> preStartUp = CompletableFuture.allOf(dependencies)
+					.thenApplyAsync(v -> timedPreStartUp(plugin), startupExecutor);
+
+				preStartUps.put(plugin.getClass(), preStartUp);
 			}
-			catch (PluginInstantiationException ex)
+
+			// startUp runs on the event thread in the sorted order, while the pool carries on with
+			// the preStartUp of the plugins further down the list
+			for (Plugin plugin : scannedPlugins)
+			{
+				final Long preStartUpNanos = preStartUps.get(plugin.getClass()).join();
+				if (preStartUpNanos == null)
+				{
+					continue;
+				}
+
+				final long startUpStart = System.nanoTime();
+				try
+				{
+					runStartUp(plugin);
+				}
+				catch (PluginInstantiationException ex)
+				{
+					log.warn("Unable to start plugin {}. {}", plugin.getClass().getSimpleName(), ex);
+					plugins.remove(plugin);
+					continue;
+				}
+
+				// Register straight away so the plugin sees the events posted while later plugins start up
+				try
+				{
+					eventBus.register(plugin);
+				}
+				catch (IllegalArgumentException ex)
+				{
+					log.warn("Unable to register plugin {}. {}", plugin.getClass().getSimpleName(), ex);
+					activePlugins.remove(plugin);
+					plugins.remove(plugin);
+
+					// startUp has already run, so undo it
+					try
+					{
+						shutDownPlugin(plugin);
+					}
+					catch (PluginInstantiationException ex2)
+					{
+						log.warn("Unable to shut down plugin {}. {}", plugin.getClass().getSimpleName(), ex2);
+					}
+					continue;
+				}
+
+				schedule(plugin);
+				eventBus.post(new PluginChanged(plugin, true));
+
+				startedPlugins.add(plugin);
+				durations.put(plugin, TimeUnit.NANOSECONDS.toMillis(preStartUpNanos + System.nanoTime() - startUpStart));
+			}
+		}
+		finally
+		{
+			startupExecutor.shutdown();
+		}
+
+		log.info("Started {} plugins in {}ms", startedPlugins.size(), System.currentTimeMillis() - start);
+		log.info("Slowest plugin startups: {}", durations.entrySet().stream()
+			.sorted(Map.Entry.<Plugin, Long>comparingByValue().reversed())
+			.limit(SLOWEST_STARTUPS_TO_LOG)
+			.map(e -> e.getKey().getClass().getSimpleName() + " " + e.getValue() + "ms")
+			.collect(Collectors.joining(", ")));
+	}
+
+	/**
+	 * Runs the preStartUp of a plugin during client startup
+	 *
+	 * @return the time spent in preStartUp in nanoseconds, or null if the plugin is not starting
+	 */
+	private Long timedPreStartUp(Plugin plugin)
+	{
+		final long start = System.nanoTime();
+
+		try
+		{
+			if (!preStartUpPlugin(plugin))
 			{
-				log.warn("Unable to start plugin {}. {}", plugin.getClass().getSimpleName(), ex);
-				plugins.remove(plugin);
+				return null;
 			}
 		}
+		catch (Throwable ex)
+		{
+			// errors such as a LinkageError must not fail the future, which would abort the remaining plugins
+			log.warn("Unable to start plugin {}. {}", plugin.getClass().getSimpleName(), ex);
+			activePlugins.remove(plugin);
+			plugins.remove(plugin);
+			return null;
+		}
+
+		return System.nanoTime() - start;
 	}
 
 	List<Plugin> scanAndInstantiate(ClassLoader classLoader, String packageName) throws IOException
+	{
+		return instantiatePlugins(scan(classLoader, packageName), false);
+	}
+
+	private static List<Class<?>> scan(ClassLoader classLoader, String packageName) throws IOException
+	{
+		ClassPath classPath = ClassPath.from(classLoader);
+
+		ImmutableSet<ClassInfo> classes = packageName == null ? classPath.getAllClasses()
+			: classPath.getTopLevelClassesRecursive(packageName);
+
+		return classes.stream()
+			.map(ClassInfo::load)
+			.collect(Collectors.toList());
+	}
+
+	private List<Plugin> instantiatePlugins(List<Class<?>> classes, boolean lazy)
 	{
 		MutableGraph<Class<? extends Plugin>> graph = GraphBuilder
 			.directed()
 			.build();
 
 		List<Plugin> scannedPlugins = new ArrayList<>();
-		ClassPath classPath = ClassPath.from(classLoader);
 
-		ImmutableSet<ClassInfo> classes = packageName == null ? classPath.getAllClasses()
-			: classPath.getTopLevelClassesRecursive(packageName);
-		for (ClassInfo classInfo : classes)
+		for (Class<?> clazz : classes)
 		{
-			Class<?> clazz = classInfo.load();
 			PluginDescriptor pluginDescriptor = clazz.getAnnotation(PluginDescriptor.class);
 
 			if (pluginDescriptor == null)
@@ -293,7 +538,7 @@ public class PluginManager
 			Plugin plugin;
 			try
 			{
-				plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz);
+				plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz, lazy && !isPluginEnabled(pluginClazz));
 			}
 			catch (PluginInstantiationException ex)
 			{
@@ -309,13 +554,81 @@ public class PluginManager
 
 	public synchronized boolean startPlugin(Plugin plugin) throws PluginInstantiationException
 	{
-		if (activePlugins.contains(plugin) || !isPluginEnabled(plugin))
+		if (!startUpPlugin(plugin))
+		{
+			return false;
+		}
+
+		try
+		{
+			eventBus.register(plugin);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new PluginInstantiationException(ex);
+		}
+
+		schedule(plugin);
+		eventBus.post(new PluginChanged(plugin, true));
+		return true;
+	}
+
+	/**
+	 * Runs the plugin's preStartUp and startUp without subscribing it to the event bus, so callers
+	 * can register several plugins at once.
+	 */
+	private boolean startUpPlugin(Plugin plugin) throws PluginInstantiationException
+	{
+		if (!preStartUpPlugin(plugin))
 		{
 			return false;
 		}
 
-		activePlugins.add(plugin);
+		runStartUp(plugin);
+		return true;
+	}
+
+	/**
+	 * Marks the plugin as active and runs its preStartUp on the calling thread. This is safe to
+	 * call concurrently for plugins which do not depend on each other. The plugin is no longer
+	 * active if this throws.
+	 *
+	 * @return false if the plugin is already active or is not enabled
+	 */
+	private boolean preStartUpPlugin(Plugin plugin) throws PluginInstantiationException
+	{
+		synchronized (this)
+		{
+			if (activePlugins.contains(plugin) || !isPluginEnabled(plugin))
+			{
+				return false;
+			}
+
+			// Plugins which were loaded lazily are injected the first time they are started
+			injectLazyPlugin(plugins, plugin);
+
+			activePlugins.add(plugin);
+		}
+
+		try
+		{
+			plugin.preStartUp();
+		}
+		catch (Exception ex)
+		{
+			activePlugins.remove(plugin);
+			throw new PluginInstantiationException(ex);
+		}
+
+		return true;
+	}
 
+	/**
+	 * Runs the plugin's startUp on the event thread, after {@link #preStartUpPlugin}. The plugin is
+	 * no longer active if this throws.
+	 */
+	private void runStartUp(Plugin plugin) throws PluginInstantiationException
+	{
 		try
 		{
 			// plugins always start in the event thread
@@ -330,27 +643,22 @@ public class PluginManager
 					throw new RuntimeException(ex);
 				}
 			});
-
-			log.debug("Plugin {} is now running", plugin.getClass().getSimpleName());
-			if (!isOutdated && sceneTileManager != null)
-			{
-				final GameEventManager gameEventManager = this.sceneTileManager.get();
-				if (gameEventManager != null)
-				{
-					gameEventManager.simulateGameEvents(plugin);
-				}
-			}
-
-			eventBus.register(plugin);
-			schedule(plugin);
-			eventBus.post(new PluginChanged(plugin, true));
 		}
-		catch (InterruptedException | InvocationTargetException | IllegalArgumentException ex)
+		catch (InterruptedException | InvocationTargetException ex)
 		{
+			activePlugins.remove(plugin);
 			throw new PluginInstantiationException(ex);
 		}
 
-		return true;
+		log.debug("Plugin {} is now running", plugin.getClass().getSimpleName());
+		if (!isOutdated && sceneTileManager != null)
+		{
+			final GameEventManager gameEventManager = this.sceneTileManager.get();
+			if (gameEventManager != null)
+			{
+				gameEventManager.simulateGameEvents(plugin);
+			}
+		}
 	}
 
 	public synchronized boolean stopPlugin(Plugin plugin) throws PluginInstantiationException
@@ -362,11 +670,24 @@ public class PluginManager
 
 		activePlugins.remove(plugin);
 
+		unschedule(plugin);
+		eventBus.unregister(plugin);
+
+		shutDownPlugin(plugin);
+
+		log.debug("Plugin {} is now stopped", plugin.getClass().getSimpleName());
+		eventBus.post(new PluginChanged(plugin, false));
+
+		return true;
+	}
+
+	/**
+	 * Runs the plugin's shutDown, without unsubscribing or unscheduling it
+	 */
+	private void shutDownPlugin(Plugin plugin) throws PluginInstantiationException
+	{
 		try
 		{
-			unschedule(plugin);
-			eventBus.unregister(plugin);
-
 			// plugins always stop in the event thread
 			SwingUtilities.invokeAndWait(() ->
 			{
@@ -379,17 +700,11 @@ public class PluginManager
 					throw new RuntimeException(ex);
 				}
 			});
-
-			log.debug("Plugin {} is now stopped", plugin.getClass().getSimpleName());
-			eventBus.post(new PluginChanged(plugin, false));
-
 		}
 		catch (InterruptedException | InvocationTargetException ex)
 		{
 			throw new PluginInstantiationException(ex);
 		}
-
-		return true;
 	}
 
 	public void setPluginEnabled(Plugin plugin, boolean enabled)
@@ -400,7 +715,12 @@ public class PluginManager
 
 	public boolean isPluginEnabled(Plugin plugin)
 	{
-		final String keyName = plugin.getClass().getSimpleName().toLowerCase();
+		return isPluginEnabled(plugin.getClass());
+	}
+
+	private boolean isPluginEnabled(Class<? extends Plugin> pluginClass)
+	{
+		final String keyName = pluginClass.getSimpleName().toLowerCase();
 		final String value = configManager.getConfiguration(runeliteGroupName, keyName);
 
 		if (value != null)
@@ -408,11 +728,75 @@ public class PluginManager
 			return Boolean.valueOf(value);
 		}
 
-		final PluginDescriptor pluginDescriptor = plugin.getClass().getAnnotation(PluginDescriptor.class);
+		final PluginDescriptor pluginDescriptor = pluginClass.getAnnotation(PluginDescriptor.class);
 		return pluginDescriptor == null || pluginDescriptor.enabledByDefault();
 	}
 
-	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
+	/**
+	 * Creates a plugin
+	 *
+	 * @param scannedPlugins plugins which have already been created
+	 * @param clazz          plugin class
+	 * @param lazy           if true the plugin is not injected, and {@link #injectLazyPlugin} has to
+	 *                       be called before it is started
+	 */
+	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz, boolean lazy) throws PluginInstantiationException
+	{
+		List<Plugin> deps = getDependencies(scannedPlugins, clazz);
+
+		Plugin plugin;
+		try
+		{
+			plugin = clazz.newInstance();
+		}
+		catch (InstantiationException | IllegalAccessException ex)
+		{
+			throw new PluginInstantiationException(ex);
+		}
+
+		if (lazy)
+		{
+			log.debug("Deferred loading plugin {}", clazz.getSimpleName());
+			return plugin;
+		}
+
+		// Dependencies may have been deferred if they are disabled
+		for (Plugin dep : deps)
+		{
+			injectLazyPlugin(scannedPlugins, dep);
+		}
+
+		inject(plugin, deps);
+
+		log.debug("Loaded plugin {}", clazz.getSimpleName());
+		return plugin;
+	}
+
+	/**
+	 * Injects a plugin which was loaded lazily, along with the lazily loaded plugins it depends on
+	 *
+	 * @param scannedPlugins plugins to look for dependencies in
+	 * @param plugin         plugin to inject
+	 */
+	private synchronized void injectLazyPlugin(Collection<Plugin> scannedPlugins, Plugin plugin) throws PluginInstantiationException
+	{
+		if (plugin.getInjector() != null)
+		{
+			return;
+		}
+
+		List<Plugin> deps = getDependencies(scannedPlugins, plugin.getClass());
+		for (Plugin dep : deps)
+		{
+			injectLazyPlugin(scannedPlugins, dep);
+		}
+
+		inject(plugin, deps);
+
+		log.debug("Loaded deferred plugin {}", plugin.getClass().getSimpleName());
+	}
+
+	private List<Plugin> getDependencies(Collection<Plugin> scannedPlugins, Class<? extends Plugin> clazz) throws PluginInstantiationException
 	{
 		PluginDependency[] pluginDependencies = clazz.getAnnotationsByType(PluginDependency.class);
 		List<Plugin> deps = new ArrayList<>();
@@ -425,16 +809,12 @@ public class PluginManager
 			}
 			deps.add(dependency.get());
 		}
+		return deps;
+	}
 
-		Plugin plugin;
-		try
-		{
-			plugin = clazz.newInstance();
-		}
-		catch (InstantiationException | IllegalAccessException ex)
-		{
-			throw new PluginInstantiationException(ex);
-		}
+	private void inject(Plugin plugin, List<Plugin> deps) throws PluginInstantiationException
+	{
+		final Class<Plugin> clazz = (Class<Plugin>) plugin.getClass();
 
 		try
 		{
@@ -460,9 +840,6 @@ public class PluginManager
 		{
 			throw new PluginInstantiationException(ex);
 		}
-
-		log.debug("Loaded plugin {}", clazz.getSimpleName());
-		return plugin;
 	}
 
 	void add(Plugin plugin)
@@ -480,6 +857,12 @@ public class PluginManager
 		return plugins;
 	}
 
+	@VisibleForTesting
+	boolean isPluginActive(Plugin plugin)
+	{
+		return activePlugins.contains(plugin);
+	}
+
 	private void schedule(Plugin plugin)
 	{
 		for (Method method : plugin.getClass().getMethods())
@@ -38,8 +38,6 @@ import net.runelite.api.Client;
 import net.runelite.api.GameObject;
 import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
-import net.runelite.api.Item;
-import net.runelite.api.ItemContainer;
 import net.runelite.api.NullObjectID;
 import net.runelite.api.ObjectID;
 import net.runelite.api.SpriteID;
@@ -62,7 +60,7 @@ import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
-import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.ContainerValuationService;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -124,7 +122,7 @@ public class BarrowsPlugin extends Plugin
 	private Client client;
 
 	@Inject
-	private ItemManager itemManager;
+	private ContainerValuationService containerValuationService;
 
 	@Inject
 	private SpriteManager spriteManager;
@@ -275,15 +273,8 @@ public class BarrowsPlugin extends Plugin
 	{
 		if (event.getGroupId() == WidgetID.BARROWS_REWARD_GROUP_ID && config.showChestValue())
 		{
-			ItemContainer barrowsRewardContainer = client.getItemContainer(InventoryID.BARROWS_REWARD);
-			Item[] items = barrowsRewardContainer.getItems();
-			long chestPrice = 0;
-
-			for (Item item : items)
-			{
-				long itemStack = (long) itemManager.getItemPrice(item.getId()) * (long) item.getQuantity();
-				chestPrice += itemStack;
-			}
+			ContainerValuationService.ContainerValue chestValue = containerValuationService.getValue(InventoryID.BARROWS_REWARD);
+			long chestPrice = chestValue != null ? chestValue.getGePrice() : 0;
 
 			final ChatMessageBuilder message = new ChatMessageBuilder()
 				.append(ChatColorType.HIGHLIGHT)
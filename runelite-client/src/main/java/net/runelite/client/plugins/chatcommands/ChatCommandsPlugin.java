@@ -673,7 +673,8 @@ public class ChatCommandsPlugin extends Plugin
 
 		if (!results.isEmpty())
 		{
-			ItemPrice item = retrieveFromList(results, search);
+			// Results are ranked, so an exact match is always first
+			ItemPrice item = results.get(0);
 			OSBGrandExchangeResult osbresult = new OSBGrandExchangeResult();
 			try
 			{
@@ -1015,35 +1016,6 @@ public class ChatCommandsPlugin extends Plugin
 		return new HiscoreLookup(player, ironmanStatus);
 	}
 
-	/**
-	 * Compares the names of the items in the list with the original input.
-	 * Returns the item if its name is equal to the original input or the
-	 * shortest match if no exact match is found.
-	 *
-	 * @param items         List of items.
-	 * @param originalInput String with the original input.
-	 * @return Item which has a name equal to the original input.
-	 */
-	private ItemPrice retrieveFromList(List<ItemPrice> items, String originalInput)
-	{
-		ItemPrice shortest = null;
-		for (ItemPrice item : items)
-		{
-			if (item.getName().toLowerCase().equals(originalInput.toLowerCase()))
-			{
-				return item;
-			}
-
-			if (shortest == null || item.getName().length() < shortest.getName().length())
-			{
-				shortest = item;
-			}
-		}
-
-		// Take a guess
-		return shortest;
-	}
-
 	/**
 	 * Looks up the ironman status of the local player. Does NOT work on other players.
 	 *
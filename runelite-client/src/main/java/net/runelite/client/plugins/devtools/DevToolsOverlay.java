@@ -33,6 +33,7 @@ import java.awt.Graphics2D;
 import java.awt.Polygon;
 import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
+import java.util.Comparator;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -65,6 +66,8 @@ import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.OverlayRenderer;
+import net.runelite.client.ui.overlay.OverlayTiming;
 import net.runelite.client.ui.overlay.OverlayUtil;
 import net.runelite.client.ui.overlay.tooltip.Tooltip;
 import net.runelite.client.ui.overlay.tooltip.TooltipManager;
@@ -87,10 +90,12 @@ class DevToolsOverlay extends Overlay
 	private static final Color GRAY = new Color(158, 158, 158);
 
 	private static final int MAX_DISTANCE = 2400;
+	private static final int MAX_OVERLAY_TIMINGS = 15;
 
 	private final Client client;
 	private final DevToolsPlugin plugin;
 	private final TooltipManager toolTipManager;
+	private final OverlayRenderer overlayRenderer;
 
 	@Setter
 	@Getter
@@ -100,13 +105,14 @@ class DevToolsOverlay extends Overlay
 	private int itemIndex = -1;
 
 	@Inject
-	private DevToolsOverlay(Client client, DevToolsPlugin plugin, TooltipManager toolTipManager)
+	private DevToolsOverlay(Client client, DevToolsPlugin plugin, TooltipManager toolTipManager, OverlayRenderer overlayRenderer)
 	{
 		setPosition(OverlayPosition.DYNAMIC);
 		setLayer(OverlayLayer.ABOVE_MAP);
 		this.client = client;
 		this.plugin = plugin;
 		this.toolTipManager = toolTipManager;
+		this.overlayRenderer = overlayRenderer;
 	}
 
 	@Override
@@ -144,6 +150,11 @@ class DevToolsOverlay extends Overlay
 			renderGraphicsObjects(graphics);
 		}
 
+		if (plugin.getOverlayTimings().isActive())
+		{
+			renderOverlayTimings(graphics);
+		}
+
 		renderWidgets(graphics);
 
 		return null;
@@ -460,6 +471,33 @@ class DevToolsOverlay extends Overlay
 		}
 	}
 
+	private void renderOverlayTimings(Graphics2D graphics)
+	{
+		final List<OverlayTiming> timings = overlayRenderer.getOverlayTimings();
+		timings.sort(Comparator.comparingLong(OverlayTiming::getMedianNanos).reversed());
+
+		final FontMetrics fm = graphics.getFontMetrics();
+		final int x = client.getViewportXOffset() + 10;
+		int y = client.getViewportYOffset() + 40;
+
+		graphics.setColor(Color.WHITE);
+		graphics.drawString("Overlays: " + overlayRenderer.getLastFrameNanos() / 1_000 + "us last frame, "
+			+ overlayRenderer.getOverBudgetFrames() + " frames over budget", x, y);
+
+		for (int i = 0; i < Math.min(MAX_OVERLAY_TIMINGS, timings.size()); ++i)
+		{
+			final OverlayTiming timing = timings.get(i);
+			y += fm.getHeight();
+
+			graphics.setColor(timing.getThrottledFrames() > 0 ? ORANGE : GREEN);
+			graphics.drawString(String.format("%s: median %dus, p99 %dus, max %dus",
+				timing.getOverlay(),
+				timing.getMedianNanos() / 1_000,
+				timing.getP99Nanos() / 1_000,
+				timing.getMaxNanos() / 1_000), x, y);
+		}
+	}
+
 	private void renderWidgets(Graphics2D graphics)
 	{
 		if (widget == null || widget.isHidden())
@@ -39,15 +39,17 @@ class DevToolsPanel extends PluginPanel
 
 	private final WidgetInspector widgetInspector;
 	private final VarInspector varInspector;
+	private final EventInspector eventInspector;
 
 	@Inject
-	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector)
+	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector, EventInspector eventInspector)
 	{
 		super();
 		this.client = client;
 		this.plugin = plugin;
 		this.widgetInspector = widgetInspector;
 		this.varInspector = varInspector;
+		this.eventInspector = eventInspector;
 
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
@@ -85,6 +87,7 @@ class DevToolsPanel extends PluginPanel
 		container.add(plugin.getValidMovement());
 		container.add(plugin.getInteracting());
 		container.add(plugin.getExamine());
+		container.add(plugin.getOverlayTimings());
 
 		container.add(plugin.getDetachedCamera());
 		plugin.getDetachedCamera().addActionListener((ev) ->
@@ -119,6 +122,19 @@ class DevToolsPanel extends PluginPanel
 			}
 		});
 
+		container.add(plugin.getEventInspector());
+		plugin.getEventInspector().addActionListener((ev) ->
+		{
+			if (plugin.getEventInspector().isActive())
+			{
+				eventInspector.close();
+			}
+			else
+			{
+				eventInspector.open();
+			}
+		});
+
 		container.add(plugin.getLogMenuActions());
 		plugin.getLogMenuActions().addActionListener((ev) ->
 		{
@@ -123,9 +123,11 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton tileLocation;
 	private DevToolsButton interacting;
 	private DevToolsButton examine;
+	private DevToolsButton overlayTimings;
 	private DevToolsButton detachedCamera;
 	private DevToolsButton widgetInspector;
 	private DevToolsButton varInspector;
+	private DevToolsButton eventInspector;
 	private DevToolsButton logMenuActions;
 	private NavigationButton navButton;
 
@@ -163,10 +165,12 @@ public class DevToolsPlugin extends Plugin
 		validMovement = new DevToolsButton("Valid Movement");
 		interacting = new DevToolsButton("Interacting");
 		examine = new DevToolsButton("Examine");
+		overlayTimings = new DevToolsButton("Overlay Timings");
 
 		detachedCamera = new DevToolsButton("Detached Camera");
 		widgetInspector = new DevToolsButton("Widget Inspector");
 		varInspector = new DevToolsButton("Var Inspector");
+		eventInspector = new DevToolsButton("Event Inspector");
 
 		overlayManager.add(overlay);
 		overlayManager.add(locationOverlay);
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.SubscriberTiming;
+import net.runelite.client.ui.ClientUI;
+
+/**
+ * Shows the time spent in each event subscriber. The event bus records timings while this is open,
+ * or while event bus profiling is turned on in the client settings.
+ */
+class EventInspector extends JFrame
+{
+	private static final int REFRESH_INTERVAL_MS = 1000;
+
+	private final EventBus eventBus;
+	private final RuneLiteConfig runeLiteConfig;
+	private final TimingTableModel tableModel = new TimingTableModel();
+	private final Timer refreshTimer;
+
+	@Inject
+	EventInspector(EventBus eventBus, RuneLiteConfig runeLiteConfig, DevToolsPlugin plugin)
+	{
+		this.eventBus = eventBus;
+		this.runeLiteConfig = runeLiteConfig;
+
+		setTitle("RuneLite Event Inspector");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getEventInspector().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(tableModel);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(700, 400));
+		add(scrollPane, BorderLayout.CENTER);
+
+		final JPanel bottomPanel = new JPanel();
+		bottomPanel.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			eventBus.resetSubscriberTimings();
+			refresh();
+		});
+		bottomPanel.add(resetBtn);
+
+		add(bottomPanel, BorderLayout.SOUTH);
+
+		refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		final List<SubscriberTiming> timings = eventBus.getSubscriberTimings();
+		timings.sort(Comparator.comparingLong(SubscriberTiming::getTotalNanos).reversed());
+		tableModel.setTimings(timings);
+	}
+
+	public void open()
+	{
+		eventBus.resetSubscriberTimings();
+		eventBus.setProfiling(true);
+		refreshTimer.start();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		refreshTimer.stop();
+		// keep profiling if it was turned on in the client settings
+		eventBus.setProfiling(runeLiteConfig.profileEventBus());
+		setVisible(false);
+	}
+
+	private static class TimingTableModel extends AbstractTableModel
+	{
+		private static final String[] COLUMNS = {"Event", "Subscriber", "Calls", "Total (ms)", "Avg (us)", "Max (us)"};
+
+		private List<SubscriberTiming> timings = Collections.emptyList();
+
+		void setTimings(List<SubscriberTiming> timings)
+		{
+			this.timings = timings;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return COLUMNS[col];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			return col < 2 ? String.class : Long.class;
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return timings.size();
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex)
+		{
+			final SubscriberTiming timing = timings.get(rowIndex);
+			switch (columnIndex)
+			{
+				case 0:
+					return timing.getEventClass().getSimpleName();
+				case 1:
+					return timing.getSubscriber();
+				case 2:
+					return timing.getInvocations();
+				case 3:
+					return timing.getTotalNanos() / 1_000_000;
+				case 4:
+					return timing.getInvocations() == 0 ? 0 : timing.getTotalNanos() / timing.getInvocations() / 1_000;
+				case 5:
+					return timing.getMaxNanos() / 1_000;
+				default:
+					return null;
+			}
+		}
+	}
+}
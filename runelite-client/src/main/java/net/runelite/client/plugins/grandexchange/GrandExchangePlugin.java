@@ -150,6 +150,7 @@ public class GrandExchangePlugin extends Plugin
 	private Widget grandExchangeText;
 	private Widget grandExchangeItem;
 	private Map<Integer, Integer> itemGELimits;
+	private BufferedImage icon;
 
 	private GrandExchangeClient grandExchangeClient;
 
@@ -180,14 +181,18 @@ public class GrandExchangePlugin extends Plugin
 	}
 
 	@Override
-	protected void startUp()
+	protected void preStartUp()
 	{
 		itemGELimits = loadGELimits();
+		icon = ImageUtil.getResourceStreamFromClass(getClass(), "ge_icon.png");
+	}
+
+	@Override
+	protected void startUp()
+	{
 		panel = injector.getInstance(GrandExchangePanel.class);
 		panel.setGELimits(itemGELimits);
 
-		final BufferedImage icon = ImageUtil.getResourceStreamFromClass(getClass(), "ge_icon.png");
-
 		button = NavigationButton.builder()
 			.tooltip("Grand Exchange")
 			.icon(icon)
@@ -50,7 +50,7 @@ public class SkyboxPlugin extends Plugin
 	private Skybox skybox;
 
 	@Override
-	public void startUp() throws IOException
+	protected void preStartUp() throws IOException
 	{
 		skybox = new Skybox(SkyboxPlugin.class.getResourceAsStream("skybox.txt"), "skybox.txt");
 	}
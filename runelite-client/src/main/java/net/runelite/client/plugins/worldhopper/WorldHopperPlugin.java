@@ -148,6 +148,7 @@ public class WorldHopperPlugin extends Plugin
 	private WorldResult worldResult;
 	private Instant lastFetch;
 	private boolean firstRun;
+	private BufferedImage icon;
 
 	private final HotkeyListener previousKeyListener = new HotkeyListener(() -> config.previousKey())
 	{
@@ -172,6 +173,15 @@ public class WorldHopperPlugin extends Plugin
 		return configManager.getConfig(WorldHopperConfig.class);
 	}
 
+	@Override
+	protected void preStartUp() throws IOException
+	{
+		synchronized (ImageIO.class)
+		{
+			icon = ImageIO.read(getClass().getResourceAsStream("icon.png"));
+		}
+	}
+
 	@Override
 	protected void startUp() throws Exception
 	{
@@ -182,12 +192,6 @@ public class WorldHopperPlugin extends Plugin
 
 		panel = new WorldSwitcherPanel(this);
 
-		final BufferedImage icon;
-		synchronized (ImageIO.class)
-		{
-			icon = ImageIO.read(getClass().getResourceAsStream("icon.png"));
-		}
-
 		navButton = NavigationButton.builder()
 			.tooltip("World Switcher")
 			.icon(icon)
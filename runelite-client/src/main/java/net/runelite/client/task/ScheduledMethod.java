@@ -24,21 +24,56 @@
  */
 package net.runelite.client.task;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.ReflectUtil;
 
+@Slf4j
 public class ScheduledMethod
 {
 	private final Schedule schedule;
 	private final Method method;
 	private final Object object;
-	private Instant last = Instant.now();
+	private final Runnable invoker;
+	private volatile Instant last = Instant.now();
+
+	final long periodNanos;
+
+	/**
+	 * System.nanoTime() at which the method is next due, and the wheel tick it is filed under.
+	 * Guarded by the scheduler.
+	 */
+	long deadline;
+	long deadlineTick;
+	boolean scheduled;
+
+	/**
+	 * Set while an asynchronous run is in progress, so a slow task is not queued again
+	 */
+	final AtomicBoolean running = new AtomicBoolean();
+
+	private final LongAdder executions = new LongAdder();
+	private final LongAdder executionNanos = new LongAdder();
+	private final LongAccumulator maxExecutionNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder lateFires = new LongAdder();
 
 	public ScheduledMethod(Schedule schedule, Method method, Object object)
 	{
 		this.schedule = schedule;
 		this.method = method;
 		this.object = object;
+		this.periodNanos = Duration.of(schedule.period(), schedule.unit()).toNanos();
+		this.invoker = createInvoker(method, object);
 	}
 
 	@Override
@@ -71,4 +106,97 @@ public class ScheduledMethod
 	{
 		this.last = last;
 	}
+
+	/**
+	 * @return the number of times the method has run
+	 */
+	public long getExecutions()
+	{
+		return executions.sum();
+	}
+
+	/**
+	 * @return the total time spent running the method, in nanoseconds
+	 */
+	public long getExecutionNanos()
+	{
+		return executionNanos.sum();
+	}
+
+	/**
+	 * @return the longest time a single run of the method took, in nanoseconds
+	 */
+	public long getMaxExecutionNanos()
+	{
+		return maxExecutionNanos.get();
+	}
+
+	/**
+	 * @return the number of times the method fired later than {@link Scheduler#LATE_THRESHOLD_NANOS}
+	 * after it was due
+	 */
+	public long getLateFires()
+	{
+		return lateFires.sum();
+	}
+
+	void recordLateFire()
+	{
+		lateFires.increment();
+	}
+
+	void run()
+	{
+		final long start = System.nanoTime();
+
+		try
+		{
+			if (invoker != null)
+			{
+				invoker.run();
+			}
+			else
+			{
+				method.invoke(object);
+			}
+		}
+		catch (Exception ex)
+		{
+			log.warn("error during scheduled task {}", this, ex);
+		}
+		finally
+		{
+			final long elapsed = System.nanoTime() - start;
+			executions.increment();
+			executionNanos.add(elapsed);
+			maxExecutionNanos.accumulate(elapsed);
+		}
+	}
+
+	private static Runnable createInvoker(Method method, Object object)
+	{
+		final Class<?> clazz = method.getDeclaringClass();
+
+		try
+		{
+			final MethodHandles.Lookup caller = ReflectUtil.privateLookupIn(clazz);
+			final MethodHandle target = caller.findVirtual(clazz, method.getName(), MethodType.methodType(method.getReturnType()));
+			final CallSite site = LambdaMetafactory.metafactory(
+				caller,
+				"run",
+				MethodType.methodType(Runnable.class, clazz),
+				MethodType.methodType(void.class),
+				target,
+				MethodType.methodType(void.class));
+
+			final MethodHandle factory = site.getTarget();
+			return (Runnable) factory.invoke(object);
+		}
+		catch (Throwable e)
+		{
+			log.warn("Unable to create lambda for method {}", method, e);
+			method.setAccessible(true);
+			return null;
+		}
+	}
 }
@@ -24,34 +24,92 @@
  */
 package net.runelite.client.task;
 
-import java.lang.reflect.InvocationTargetException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.lang.reflect.Method;
-import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ScheduledExecutorService;
-import javax.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs {@link Schedule} methods. Methods are kept in a hashed timer wheel keyed by the time they
+ * are next due, so a tick only looks at the buckets which have elapsed since the previous tick.
+ */
 @Singleton
 @Slf4j
 public class Scheduler
 {
+	/**
+	 * Width of a wheel bucket
+	 */
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	/**
+	 * Number of buckets, a power of two. Methods due further away than one revolution stay in
+	 * their bucket until the revolution they are due in.
+	 */
+	private static final int WHEEL_SIZE = 512;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	/**
+	 * A method which runs more than this long after it was due counts as a late fire
+	 */
+	static final long LATE_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final int ASYNC_THREADS = 2;
+
 	private final List<ScheduledMethod> scheduledMethods = new CopyOnWriteArrayList<>();
+	private final List<ScheduledMethod>[] wheel = new List[WHEEL_SIZE];
+	private final long epoch = System.nanoTime();
+	private long currentTick;
+
+	private final ExecutorService asyncExecutor = Executors.newFixedThreadPool(ASYNC_THREADS, new ThreadFactoryBuilder()
+		.setNameFormat("scheduler-%d")
+		.setDaemon(true)
+		.build());
 
-	@Inject
-	ScheduledExecutorService executor;
+	public Scheduler()
+	{
+		for (int i = 0; i < WHEEL_SIZE; ++i)
+		{
+			wheel[i] = new ArrayList<>();
+		}
+	}
 
 	public void addScheduledMethod(ScheduledMethod method)
 	{
+		synchronized (this)
+		{
+			if (method.scheduled)
+			{
+				return;
+			}
+
+			method.scheduled = true;
+			insert(method, System.nanoTime() + method.periodNanos);
+		}
+
 		scheduledMethods.add(method);
 	}
 
 	public void removeScheduledMethod(ScheduledMethod method)
 	{
+		synchronized (this)
+		{
+			if (method.scheduled)
+			{
+				method.scheduled = false;
+				wheel[(int) (method.deadlineTick & WHEEL_MASK)].remove(method);
+			}
+		}
+
 		scheduledMethods.remove(method);
 	}
 
@@ -82,57 +140,131 @@ public class Scheduler
 			if (sm.getObject() == obj)
 			{
 				removeScheduledMethod(sm);
-				break;
 			}
 		}
 	}
 
 	public void tick()
 	{
-		Instant now = Instant.now();
+		tick(System.nanoTime());
+	}
+
+	@VisibleForTesting
+	void tick(long now)
+	{
+		final List<ScheduledMethod> due = collectDue(now);
 
-		for (ScheduledMethod scheduledMethod : scheduledMethods)
+		if (due == null)
 		{
-			Instant last = scheduledMethod.getLast();
+			return;
+		}
 
-			Duration difference = Duration.between(last, now);
+		final Instant nowInstant = Instant.now();
 
-			Schedule schedule = scheduledMethod.getSchedule();
-			Duration timeSinceRun = Duration.of(schedule.period(), schedule.unit());
+		for (ScheduledMethod scheduledMethod : due)
+		{
+			log.trace("Scheduled task triggered: {}", scheduledMethod);
 
-			if (difference.compareTo(timeSinceRun) > 0)
+			if (now - scheduledMethod.deadline > LATE_THRESHOLD_NANOS)
 			{
-				log.trace("Scheduled task triggered: {}", scheduledMethod);
+				scheduledMethod.recordLateFire();
+			}
 
-				scheduledMethod.setLast(now);
+			scheduledMethod.setLast(nowInstant);
 
-				if (schedule.asynchronous())
+			synchronized (this)
+			{
+				// the method may have been removed while it was out of the wheel
+				if (scheduledMethod.scheduled)
 				{
-					executor.submit(() -> run(scheduledMethod));
+					insert(scheduledMethod, now + scheduledMethod.periodNanos);
 				}
-				else
+			}
+
+			if (scheduledMethod.getSchedule().asynchronous())
+			{
+				if (!scheduledMethod.running.compareAndSet(false, true))
 				{
-					run(scheduledMethod);
+					log.trace("Scheduled task {} is still running, skipping", scheduledMethod);
+					continue;
 				}
+
+				asyncExecutor.execute(() ->
+				{
+					try
+					{
+						scheduledMethod.run();
+					}
+					finally
+					{
+						scheduledMethod.running.set(false);
+					}
+				});
+			}
+			else
+			{
+				scheduledMethod.run();
 			}
 		}
 	}
 
-	private void run(ScheduledMethod scheduledMethod)
+	/**
+	 * Removes the methods which are due from the wheel
+	 *
+	 * @return the due methods, or null if there are none
+	 */
+	private synchronized List<ScheduledMethod> collectDue(long now)
 	{
-		Method method = scheduledMethod.getMethod();
+		final long nowTick = (now - epoch) / TICK_NANOS;
 
-		try
+		if (nowTick < currentTick)
 		{
-			method.invoke(scheduledMethod.getObject());
+			return null;
 		}
-		catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex)
-		{
-			//log.warn("error invoking scheduled task", ex);
-		}
-		catch (Exception ex)
+
+		// Every bucket only has to be looked at once, even if more than a revolution has passed
+		final long lastTick = Math.min(nowTick, currentTick + WHEEL_SIZE - 1);
+		List<ScheduledMethod> due = null;
+
+		for (long tick = currentTick; tick <= lastTick; ++tick)
 		{
-			log.warn("error during scheduled task", ex);
+			final List<ScheduledMethod> bucket = wheel[(int) (tick & WHEEL_MASK)];
+
+			for (int i = bucket.size() - 1; i >= 0; --i)
+			{
+				final ScheduledMethod method = bucket.get(i);
+
+				if (method.deadlineTick > nowTick)
+				{
+					continue;
+				}
+
+				// swap remove, the order within a bucket doesn't matter
+				final ScheduledMethod last = bucket.remove(bucket.size() - 1);
+				if (last != method)
+				{
+					bucket.set(i, last);
+				}
+
+				if (due == null)
+				{
+					due = new ArrayList<>();
+				}
+				due.add(method);
+			}
 		}
+
+		currentTick = nowTick + 1;
+		return due;
+	}
+
+	private void insert(ScheduledMethod method, long deadline)
+	{
+		// round up, so a method never runs before it is due
+		final long tick = (deadline - epoch + TICK_NANOS - 1) / TICK_NANOS;
+
+		method.deadline = deadline;
+		method.deadlineTick = Math.max(tick, currentTick);
+		wheel[(int) (method.deadlineTick & WHEEL_MASK)].add(method);
 	}
 }
@@ -27,9 +27,13 @@ package net.runelite.client.ui.overlay;
 import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.client.plugins.Plugin;
@@ -50,6 +54,35 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	private OverlayLayer layer = OverlayLayer.UNDER_WIDGETS;
 	private final List<OverlayMenuEntry> menuEntries = new ArrayList<>();
 
+	/**
+	 * Whether the renderer may reuse the last rendered image of this overlay until it is
+	 * invalidated, instead of calling {@link #render(java.awt.Graphics2D)} every frame.
+	 * Retained overlays must only draw within the dimension they return. Dynamic and
+	 * tooltip overlays are never retained.
+	 */
+	private boolean retained;
+
+	/**
+	 * Events which invalidate the retained image, in addition to {@link #invalidate()}
+	 */
+	private final Set<OverlayInvalidation> invalidations = EnumSet.noneOf(OverlayInvalidation.class);
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.NONE)
+	private volatile boolean dirty = true;
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private BufferedImage retainedImage;
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private Dimension retainedDimension;
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.NONE)
+	private final OverlayTimer timer = new OverlayTimer();
+
 	protected Overlay()
 	{
 		plugin = null;
@@ -69,4 +102,20 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	{
 		return this.getClass().getSimpleName();
 	}
+
+	/**
+	 * Mark the retained image of this overlay as stale, so it is rendered again next frame
+	 */
+	public void invalidate()
+	{
+		dirty = true;
+	}
+
+	/**
+	 * Mark the retained image of this overlay as up to date
+	 */
+	void validate()
+	{
+		dirty = false;
+	}
 }
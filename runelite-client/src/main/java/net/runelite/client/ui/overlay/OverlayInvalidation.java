@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+/**
+ * Events which invalidate the retained image of an {@link Overlay}
+ */
+public enum OverlayInvalidation
+{
+	/**
+	 * Invalidate every game tick
+	 */
+	GAME_TICK,
+	/**
+	 * Invalidate when the game state changes
+	 */
+	GAME_STATE_CHANGED,
+	/**
+	 * Invalidate when any configuration value changes
+	 */
+	CONFIG_CHANGED,
+	/**
+	 * Invalidate when any varbit or varp changes
+	 */
+	VARBIT_CHANGED,
+	/**
+	 * Invalidate when the contents of any item container change
+	 */
+	ITEM_CONTAINER_CHANGED,
+	/**
+	 * Invalidate when experience is gained in any skill
+	 */
+	EXPERIENCE_CHANGED,
+	/**
+	 * Invalidate when the boosted level of any skill changes
+	 */
+	BOOSTED_LEVEL_CHANGED
+}
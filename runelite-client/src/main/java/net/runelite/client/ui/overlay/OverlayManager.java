@@ -237,6 +237,7 @@ public class OverlayManager
 		saveOverlayPosition(overlay);
 		saveOverlaySize(overlay);
 		saveOverlayLocation(overlay);
+		overlay.invalidate();
 		rebuildOverlayLayers();
 	}
 
@@ -292,6 +293,7 @@ public class OverlayManager
 		overlay.setPreferredSize(size);
 		final OverlayPosition position = loadOverlayPosition(overlay);
 		overlay.setPreferredPosition(position);
+		overlay.invalidate();
 	}
 
 	private void saveOverlayLocation(final Overlay overlay)
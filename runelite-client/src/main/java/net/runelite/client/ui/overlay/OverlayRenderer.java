@@ -27,25 +27,41 @@ package net.runelite.client.ui.overlay;
 import com.google.common.base.MoreObjects;
 import com.google.common.primitives.Ints;
 import java.awt.Color;
+import java.awt.AlphaComposite;
+import java.awt.Composite;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Shape;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
+import lombok.Getter;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.BoostedLevelChanged;
 import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.ConfigChanged;
+import net.runelite.api.events.ExperienceChanged;
 import net.runelite.api.events.FocusChanged;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.input.KeyListener;
@@ -56,7 +72,7 @@ import net.runelite.client.ui.JagexColors;
 import net.runelite.client.util.ColorUtil;
 
 @Singleton
-public class OverlayRenderer extends MouseAdapter implements KeyListener
+public class OverlayRenderer extends MouseAdapter implements KeyListener, OverlayRendererMXBean
 {
 	private static final int BORDER = 5;
 	private static final int BORDER_TOP = BORDER + 15;
@@ -66,6 +82,11 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private static final Color SNAP_CORNER_ACTIVE_COLOR = new Color(0, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_COLOR = new Color(255, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_ACTIVE_COLOR = new Color(255, 255, 0, 200);
+	private static final String RUNELITE_CONFIG_GROUP_NAME = RuneLiteConfig.class.getAnnotation(ConfigGroup.class).value();
+	// Low priority overlays are rendered once every this many frames while over budget
+	static final int THROTTLE_INTERVAL = 4;
+	// Frames in a row which have to be under budget before low priority overlays are rendered every frame again
+	static final int THROTTLE_RELEASE_FRAMES = 50;
 	private final Client client;
 	private final OverlayManager overlayManager;
 	private final RuneLiteConfig runeLiteConfig;
@@ -86,6 +107,16 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private boolean isResizeable;
 	private OverlayBounds snapCorners;
 
+	// Overlay frame budget
+	private long frame;
+	private long frameNanos;
+	private boolean throttled;
+	private int underBudgetFrames;
+	@Getter
+	private long lastFrameNanos;
+	@Getter
+	private long overBudgetFrames;
+
 	@Inject
 	private OverlayRenderer(
 		final Client client,
@@ -143,6 +174,76 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	public void onBeforeRender(BeforeRender event)
 	{
 		menuEntries = null;
+
+		final long budget = TimeUnit.MILLISECONDS.toNanos(runeLiteConfig.overlayFrameBudget());
+
+		if (budget > 0 && frameNanos > budget)
+		{
+			++overBudgetFrames;
+			throttled = true;
+			underBudgetFrames = 0;
+		}
+		else if (throttled && (budget <= 0 || ++underBudgetFrames >= THROTTLE_RELEASE_FRAMES))
+		{
+			// Throttling makes the frames cheaper, so only stop once the frames which do render the
+			// throttled overlays have stayed under budget for a while
+			throttled = false;
+			underBudgetFrames = 0;
+		}
+
+		lastFrameNanos = frameNanos;
+		frameNanos = 0;
+		++frame;
+	}
+
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		invalidate(OverlayInvalidation.GAME_TICK);
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		invalidate(OverlayInvalidation.GAME_STATE_CHANGED);
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (RUNELITE_CONFIG_GROUP_NAME.equals(event.getGroup()))
+		{
+			// Fonts are configured here, so every retained image may be stale
+			invalidate(null);
+		}
+		else
+		{
+			invalidate(OverlayInvalidation.CONFIG_CHANGED);
+		}
+	}
+
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged event)
+	{
+		invalidate(OverlayInvalidation.VARBIT_CHANGED);
+	}
+
+	@Subscribe
+	public void onItemContainerChanged(ItemContainerChanged event)
+	{
+		invalidate(OverlayInvalidation.ITEM_CONTAINER_CHANGED);
+	}
+
+	@Subscribe
+	public void onExperienceChanged(ExperienceChanged event)
+	{
+		invalidate(OverlayInvalidation.EXPERIENCE_CHANGED);
+	}
+
+	@Subscribe
+	public void onBoostedLevelChanged(BoostedLevelChanged event)
+	{
+		invalidate(OverlayInvalidation.BOOSTED_LEVEL_CHANGED);
 	}
 
 	public void render(Graphics2D graphics, final OverlayLayer layer)
@@ -224,7 +325,9 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 
 			if (overlayPosition == OverlayPosition.DYNAMIC || overlayPosition == OverlayPosition.TOOLTIP)
 			{
+				final long start = System.nanoTime();
 				safeRender(client, overlay, layer, graphics, new Point());
+				record(overlay, System.nanoTime() - start);
 			}
 			else
 			{
@@ -259,7 +362,24 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 					overlay.getBounds().setSize(overlay.getPreferredSize());
 				}
 
-				safeRender(client, overlay, layer, graphics, location);
+				final long start = System.nanoTime();
+
+				if (overlay.isRetained())
+				{
+					retainedRender(client, overlay, layer, graphics, location);
+				}
+				else if (throttled && overlay.getPriority() == OverlayPriority.LOW)
+				{
+					// The retained image is kept once throttling stops, so it can be reused the next time
+					throttledRender(client, overlay, layer, graphics, location);
+				}
+				else
+				{
+					safeRender(client, overlay, layer, graphics, location);
+				}
+
+				record(overlay, System.nanoTime() - start);
+
 				final Rectangle bounds = overlay.getBounds();
 
 				if (bounds.isEmpty())
@@ -441,26 +561,176 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 				client.getViewportHeight());
 		}
 
+		subGraphics.setFont(getFont(overlay));
+		subGraphics.translate(point.x, point.y);
+		final Dimension dimension = MoreObjects.firstNonNull(overlay.render(subGraphics), new Dimension());
+		subGraphics.dispose();
+		overlay.getBounds().setBounds(point.x, point.y, dimension.width, dimension.height);
+	}
+
+	private void retainedRender(Client client, Overlay overlay, OverlayLayer layer, Graphics2D graphics, Point point)
+	{
+		if (overlay.isDirty() || overlay.getRetainedImage() == null)
+		{
+			// Validate before rendering so invalidations during the render are not lost
+			overlay.validate();
+			renderRetainedImage(overlay, graphics);
+		}
+
+		final BufferedImage image = overlay.getRetainedImage();
+		final Dimension dimension = overlay.getRetainedDimension();
+
+		if (dimension.width > 0 && dimension.height > 0)
+		{
+			final Shape clip = graphics.getClip();
+
+			if (!isResizeable && (layer == OverlayLayer.ABOVE_SCENE || layer == OverlayLayer.UNDER_WIDGETS))
+			{
+				graphics.clipRect(client.getViewportXOffset(),
+					client.getViewportYOffset(),
+					client.getViewportWidth(),
+					client.getViewportHeight());
+			}
+
+			graphics.drawImage(image,
+				point.x, point.y, point.x + dimension.width, point.y + dimension.height,
+				0, 0, dimension.width, dimension.height,
+				null);
+			graphics.setClip(clip);
+		}
+
+		overlay.getBounds().setBounds(point.x, point.y, dimension.width, dimension.height);
+	}
+
+	private void throttledRender(Client client, Overlay overlay, OverlayLayer layer, Graphics2D graphics, Point point)
+	{
+		final OverlayTimer timer = overlay.getTimer();
+
+		if (overlay.getRetainedImage() == null || frame - timer.lastRenderFrame >= THROTTLE_INTERVAL)
+		{
+			timer.lastRenderFrame = frame;
+			overlay.invalidate();
+		}
+		else
+		{
+			timer.throttled();
+		}
+
+		retainedRender(client, overlay, layer, graphics, point);
+	}
+
+	private void record(Overlay overlay, long nanos)
+	{
+		overlay.getTimer().record(nanos);
+		frameNanos += nanos;
+	}
+
+	@Override
+	public List<OverlayTiming> getOverlayTimings()
+	{
+		final List<OverlayTiming> timings = new ArrayList<>();
+
+		synchronized (overlayManager)
+		{
+			for (Overlay overlay : overlayManager.getOverlays())
+			{
+				timings.add(overlay.getTimer().snapshot(overlay));
+			}
+		}
+
+		return timings;
+	}
+
+	@Override
+	public void resetOverlayTimings()
+	{
+		synchronized (overlayManager)
+		{
+			for (Overlay overlay : overlayManager.getOverlays())
+			{
+				overlay.getTimer().reset();
+			}
+		}
+
+		overBudgetFrames = 0;
+	}
+
+	private void renderRetainedImage(Overlay overlay, Graphics2D graphics)
+	{
+		BufferedImage image = overlay.getRetainedImage();
+
+		if (image == null)
+		{
+			final Dimension size = MoreObjects.firstNonNull(overlay.getPreferredSize(), overlay.getBounds().getSize());
+			image = new BufferedImage(Math.max(1, size.width), Math.max(1, size.height), BufferedImage.TYPE_INT_ARGB);
+		}
+
+		Dimension dimension = renderToImage(overlay, graphics, image);
+
+		if (dimension.width > image.getWidth() || dimension.height > image.getHeight())
+		{
+			// The overlay outgrew the image, so render it again into one which fits
+			image = new BufferedImage(
+				Math.max(dimension.width, image.getWidth()),
+				Math.max(dimension.height, image.getHeight()),
+				BufferedImage.TYPE_INT_ARGB);
+			dimension = renderToImage(overlay, graphics, image);
+		}
+
+		overlay.setRetainedImage(image);
+		overlay.setRetainedDimension(dimension);
+	}
+
+	private Dimension renderToImage(Overlay overlay, Graphics2D graphics, BufferedImage image)
+	{
+		final Graphics2D imageGraphics = image.createGraphics();
+
+		final Composite composite = imageGraphics.getComposite();
+		imageGraphics.setComposite(AlphaComposite.Clear);
+		imageGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		imageGraphics.setComposite(composite);
+
+		imageGraphics.setRenderingHints(graphics.getRenderingHints());
+		imageGraphics.setColor(graphics.getColor());
+		imageGraphics.setStroke(graphics.getStroke());
+		imageGraphics.setFont(getFont(overlay));
+
+		final Dimension dimension = MoreObjects.firstNonNull(overlay.render(imageGraphics), new Dimension());
+		imageGraphics.dispose();
+		return dimension;
+	}
+
+	private Font getFont(Overlay overlay)
+	{
 		final OverlayPosition position = overlay.getPosition();
 
 		// Set font based on configuration
 		if (position == OverlayPosition.DYNAMIC || position == OverlayPosition.DETACHED)
 		{
-			subGraphics.setFont(runeLiteConfig.fontType().getFont());
+			return runeLiteConfig.fontType().getFont();
 		}
 		else if (position == OverlayPosition.TOOLTIP)
 		{
-			subGraphics.setFont(runeLiteConfig.tooltipFontType().getFont());
+			return runeLiteConfig.tooltipFontType().getFont();
 		}
 		else
 		{
-			subGraphics.setFont(runeLiteConfig.interfaceFontType().getFont());
+			return runeLiteConfig.interfaceFontType().getFont();
 		}
+	}
 
-		subGraphics.translate(point.x, point.y);
-		final Dimension dimension = MoreObjects.firstNonNull(overlay.render(subGraphics), new Dimension());
-		subGraphics.dispose();
-		overlay.setBounds(new Rectangle(point, dimension));
+	private void invalidate(OverlayInvalidation invalidation)
+	{
+		synchronized (overlayManager)
+		{
+			for (Overlay overlay : overlayManager.getOverlays())
+			{
+				if (overlay.isRetained() && (invalidation == null || overlay.getInvalidations().contains(invalidation)))
+				{
+					overlay.invalidate();
+				}
+			}
+		}
 	}
 
 	private boolean shouldInvalidateBounds()
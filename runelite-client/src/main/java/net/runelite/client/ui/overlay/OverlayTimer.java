@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import java.util.Arrays;
+
+/**
+ * Rolling window of the render times of an overlay
+ */
+class OverlayTimer
+{
+	private static final int SAMPLES = 128;
+
+	private final long[] samples = new long[SAMPLES];
+	private long frames;
+	private long throttledFrames;
+
+	/**
+	 * The frame the overlay was last rendered in while throttled, only accessed from the client thread
+	 */
+	long lastRenderFrame = Long.MIN_VALUE;
+
+	synchronized void record(long nanos)
+	{
+		samples[(int) (frames++ % SAMPLES)] = nanos;
+	}
+
+	synchronized void throttled()
+	{
+		++throttledFrames;
+	}
+
+	synchronized void reset()
+	{
+		frames = throttledFrames = 0;
+	}
+
+	synchronized OverlayTiming snapshot(Overlay overlay)
+	{
+		final int count = (int) Math.min(frames, SAMPLES);
+		final long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+
+		long total = 0;
+		for (long sample : sorted)
+		{
+			total += sample;
+		}
+
+		return new OverlayTiming(
+			overlay.getName(),
+			overlay.getPriority(),
+			frames,
+			throttledFrames,
+			count == 0 ? 0 : total / count,
+			percentile(sorted, 50),
+			percentile(sorted, 99),
+			count == 0 ? 0 : sorted[count - 1]);
+	}
+
+	private static long percentile(long[] sorted, int percentile)
+	{
+		if (sorted.length == 0)
+		{
+			return 0;
+		}
+
+		return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+	}
+}
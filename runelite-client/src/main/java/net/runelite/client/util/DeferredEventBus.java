@@ -24,6 +24,7 @@
  */
 package net.runelite.client.util;
 
+import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.inject.Inject;
@@ -48,6 +49,12 @@ public class DeferredEventBus extends EventBus
 		eventBus.register(object);
 	}
 
+	@Override
+	public void registerAll(Collection<?> objects)
+	{
+		eventBus.registerAll(objects);
+	}
+
 	@Override
 	public void unregister(Object object)
 	{
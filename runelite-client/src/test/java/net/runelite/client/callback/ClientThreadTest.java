@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Inject
+	ClientThread clientThread;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.isClientThread()).thenReturn(true);
+	}
+
+	@Test
+	public void testInvokeOnClientThread()
+	{
+		AtomicInteger runs = new AtomicInteger();
+		clientThread.invoke(() ->
+		{
+			runs.incrementAndGet();
+			return true;
+		});
+		assertEquals(1, runs.get());
+
+		// completed invokes are not queued again
+		clientThread.invoke();
+		assertEquals(1, runs.get());
+		assertEquals(0, clientThread.getQueueDepth(ClientThread.Lane.CRITICAL));
+	}
+
+	@Test
+	public void testRequeue()
+	{
+		AtomicInteger runs = new AtomicInteger();
+		clientThread.invokeLater(() -> runs.incrementAndGet() >= 3);
+
+		clientThread.invoke();
+		clientThread.invoke();
+		assertEquals(1, clientThread.getQueueDepth(ClientThread.Lane.CRITICAL));
+		clientThread.invoke();
+		assertEquals(3, runs.get());
+		assertEquals(0, clientThread.getQueueDepth(ClientThread.Lane.CRITICAL));
+	}
+
+	@Test
+	public void testBackgroundBudget()
+	{
+		clientThread.setFrameBudgetNanos(TimeUnit.MILLISECONDS.toNanos(5));
+
+		AtomicInteger runs = new AtomicInteger();
+		for (int i = 0; i < 10; ++i)
+		{
+			clientThread.invokeLater(() ->
+			{
+				runs.incrementAndGet();
+				sleep(2);
+			}, ClientThread.Lane.BACKGROUND);
+		}
+
+		clientThread.invoke();
+		assertTrue(runs.get() >= 1 && runs.get() < 10);
+		assertEquals(10 - runs.get(), clientThread.getQueueDepth(ClientThread.Lane.BACKGROUND));
+		assertEquals(1, clientThread.getCarryOvers());
+
+		for (int i = 0; i < 10 && clientThread.getQueueDepth(ClientThread.Lane.BACKGROUND) > 0; ++i)
+		{
+			clientThread.invoke();
+		}
+		assertEquals(10, runs.get());
+	}
+
+	@Test
+	public void testBackgroundProgress()
+	{
+		clientThread.setFrameBudgetNanos(0);
+
+		AtomicInteger runs = new AtomicInteger();
+		clientThread.invokeLater(runs::incrementAndGet, ClientThread.Lane.BACKGROUND);
+		clientThread.invokeLater(runs::incrementAndGet, ClientThread.Lane.BACKGROUND);
+
+		// at least one background invoke runs per frame, even without budget
+		clientThread.invoke();
+		assertEquals(1, runs.get());
+		clientThread.invoke();
+		assertEquals(2, runs.get());
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
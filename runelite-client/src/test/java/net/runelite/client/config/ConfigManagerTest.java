@@ -99,6 +99,23 @@ public class ConfigManagerTest
 		Assert.assertEquals("new value", conf.key());
 	}
 
+	@Test
+	public void testCachedValueInvalidation() throws IOException
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "first");
+		Assert.assertEquals("first", conf.key());
+		Assert.assertEquals("first", conf.key());
+
+		manager.setConfiguration("test", "key", "second");
+		Assert.assertEquals("second", conf.key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+	}
+
 	@Test
 	public void testGetConfigDescriptor() throws IOException
 	{
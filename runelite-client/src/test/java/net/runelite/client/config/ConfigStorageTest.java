@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.Properties;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigStorageTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File settingsFile;
+	private ConfigStorage storage;
+
+	@Before
+	public void before()
+	{
+		settingsFile = new File(folder.getRoot(), "settings.properties");
+		storage = new ConfigStorage(settingsFile);
+	}
+
+	@Test
+	public void testLoadMissing() throws IOException
+	{
+		assertFalse(storage.load(new Properties()));
+	}
+
+	@Test
+	public void testReplayLog() throws IOException
+	{
+		storage.append(ImmutableMap.of("test.a", "1", "test.b", "2"));
+		storage.append(Collections.singletonMap("test.a", null));
+		storage.append(ImmutableMap.of("test.b", "multi\nline=value"));
+
+		Properties properties = new Properties();
+		assertTrue(storage.load(properties));
+		assertNull(properties.getProperty("test.a"));
+		assertEquals("multi\nline=value", properties.getProperty("test.b"));
+		assertFalse(settingsFile.exists());
+	}
+
+	@Test
+	public void testCompact() throws IOException
+	{
+		storage.append(ImmutableMap.of("test.a", "1"));
+		assertTrue(storage.hasPendingLog());
+
+		Properties snapshot = new Properties();
+		snapshot.setProperty("test.a", "1");
+		storage.compact(snapshot);
+
+		assertTrue(settingsFile.exists());
+		assertFalse(storage.hasPendingLog());
+
+		storage.append(ImmutableMap.of("test.b", "2"));
+
+		Properties properties = new Properties();
+		assertTrue(storage.load(properties));
+		assertEquals("1", properties.getProperty("test.a"));
+		assertEquals("2", properties.getProperty("test.b"));
+	}
+
+	@Test
+	public void testTornRecord() throws IOException
+	{
+		storage.append(ImmutableMap.of("test.a", "1"));
+		storage.append(ImmutableMap.of("test.a", "2"));
+
+		File logFile = new File(folder.getRoot(), "settings.properties.wal");
+		try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw"))
+		{
+			raf.setLength(raf.length() - 1);
+		}
+
+		Properties properties = new Properties();
+		assertTrue(storage.load(properties));
+		assertEquals("1", properties.getProperty("test.a"));
+	}
+
+	@Test
+	public void testAppendAfterCorruptRecord() throws IOException
+	{
+		storage.append(ImmutableMap.of("test.a", "1"));
+
+		// a record whose checksum does not match its contents
+		File logFile = new File(folder.getRoot(), "settings.properties.wal");
+		try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw"))
+		{
+			raf.seek(raf.length());
+			raf.writeInt(3);
+			raf.writeInt(0);
+			raf.write(new byte[]{1, 2, 3});
+		}
+
+		Properties properties = new Properties();
+		assertTrue(storage.load(properties));
+		assertEquals("1", properties.getProperty("test.a"));
+
+		storage.append(ImmutableMap.of("test.b", "2"));
+
+		properties = new Properties();
+		assertTrue(storage.load(properties));
+		assertEquals("1", properties.getProperty("test.a"));
+		assertEquals("2", properties.getProperty("test.b"));
+	}
+}
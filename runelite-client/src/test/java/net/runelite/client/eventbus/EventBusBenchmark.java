@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import com.google.common.collect.ImmutableMultimap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link EventBus#post(Object)} against the multimap lookup it replaced.
+ * Run with {@link #main(String[])} from the IDE after test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+	public static class BenchmarkEvent
+	{
+	}
+
+	public static class OtherEvent
+	{
+	}
+
+	public static class Listener
+	{
+		private long count;
+
+		@Subscribe
+		public void onBenchmarkEvent(BenchmarkEvent event)
+		{
+			count++;
+		}
+
+		@Subscribe
+		public void onOtherEvent(OtherEvent event)
+		{
+			count--;
+		}
+	}
+
+	@Param({"10", "100", "500"})
+	private int subscribers;
+
+	private final BenchmarkEvent event = new BenchmarkEvent();
+	private EventBus eventBus;
+	private ImmutableMultimap<Class, EventBus.SubscriberMethod> multimap;
+
+	@Setup
+	public void setup()
+	{
+		eventBus = new EventBus();
+		final ImmutableMultimap.Builder<Class, EventBus.SubscriberMethod> builder = ImmutableMultimap.builder();
+
+		for (int i = 0; i < subscribers; ++i)
+		{
+			final Listener listener = new Listener();
+			eventBus.register(listener);
+			builder.put(BenchmarkEvent.class, e -> listener.onBenchmarkEvent((BenchmarkEvent) e));
+			builder.put(OtherEvent.class, e -> listener.onOtherEvent((OtherEvent) e));
+		}
+
+		multimap = builder.build();
+	}
+
+	@Benchmark
+	public void dispatchTable()
+	{
+		eventBus.post(event);
+	}
+
+	@Benchmark
+	public void multimap()
+	{
+		for (final EventBus.SubscriberMethod subscriber : multimap.get(event.getClass()))
+		{
+			try
+			{
+				subscriber.invoke(event);
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(EventBusBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	private final List<String> calls = new ArrayList<>();
+	private EventBus eventBus;
+
+	public static class TestEvent
+	{
+	}
+
+	public static class UnrelatedEvent
+	{
+	}
+
+	public class First
+	{
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add("first");
+		}
+	}
+
+	public class Second
+	{
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add("second");
+		}
+
+		@Subscribe
+		public void onUnrelatedEvent(UnrelatedEvent event)
+		{
+			calls.add("second unrelated");
+		}
+	}
+
+	public class Urgent
+	{
+		@Subscribe(priority = 1)
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add("urgent");
+		}
+	}
+
+	public static class Invalid
+	{
+		@Subscribe
+		public void onWrongName(TestEvent event)
+		{
+		}
+	}
+
+	@Before
+	public void before()
+	{
+		eventBus = new EventBus();
+	}
+
+	@Test
+	public void testPostInRegistrationOrder()
+	{
+		eventBus.register(new First());
+		eventBus.register(new Second());
+
+		eventBus.post(new TestEvent());
+		eventBus.post(new UnrelatedEvent());
+
+		assertEquals(3, calls.size());
+		assertEquals("first", calls.get(0));
+		assertEquals("second", calls.get(1));
+		assertEquals("second unrelated", calls.get(2));
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		final First first = new First();
+		eventBus.register(first);
+		eventBus.register(new Second());
+		eventBus.unregister(first);
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(1, calls.size());
+		assertEquals("second", calls.get(0));
+	}
+
+	@Test
+	public void testUnregisterKeepsOrder()
+	{
+		final Second second = new Second();
+		eventBus.register(new First());
+		eventBus.register(second);
+		eventBus.register(new First());
+		eventBus.unregister(second);
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(Arrays.asList("first", "first"), calls);
+	}
+
+	@Test
+	public void testRegisterAll()
+	{
+		eventBus.registerAll(Arrays.asList(new First(), new Second()));
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(Arrays.asList("first", "second"), calls);
+	}
+
+	@Test
+	public void testRegisterAllInvalid()
+	{
+		try
+		{
+			eventBus.registerAll(Arrays.asList(new First(), new Invalid()));
+			fail();
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// expected
+		}
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(0, calls.size());
+	}
+
+	@Test
+	public void testPriority()
+	{
+		eventBus.register(new First());
+		eventBus.register(new Urgent());
+		eventBus.register(new Second());
+
+		eventBus.post(new TestEvent());
+
+		assertEquals(Arrays.asList("urgent", "first", "second"), calls);
+	}
+
+	@Test
+	public void testProfiling()
+	{
+		eventBus.register(new First());
+
+		eventBus.post(new TestEvent());
+		assertEquals(0, eventBus.getSubscriberTimings().get(0).getInvocations());
+
+		eventBus.setProfiling(true);
+		eventBus.post(new TestEvent());
+		eventBus.post(new TestEvent());
+
+		final List<SubscriberTiming> timings = eventBus.getSubscriberTimings();
+		assertEquals(1, timings.size());
+		assertEquals(TestEvent.class, timings.get(0).getEventClass());
+		assertEquals("First.onTestEvent", timings.get(0).getSubscriber());
+		assertEquals(2, timings.get(0).getInvocations());
+
+		eventBus.resetSubscriberTimings();
+		assertEquals(0, eventBus.getSubscriberTimings().get(0).getInvocations());
+	}
+
+	@Test
+	public void testPostWithoutSubscribers()
+	{
+		eventBus.post(new TestEvent());
+		eventBus.register(new First());
+		eventBus.post(new UnrelatedEvent());
+
+		assertEquals(0, calls.size());
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.ItemID;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Matchers.anyInt;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ContainerValuationServiceTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	ItemManager itemManager;
+
+	@Mock
+	ItemContainer inventory;
+
+	@Inject
+	ContainerValuationService containerValuationService;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		when(client.isClientThread()).thenReturn(true);
+		when(client.getItemContainer(InventoryID.INVENTORY)).thenReturn(inventory);
+
+		when(itemManager.canonicalize(anyInt())).thenAnswer(a -> a.getArguments()[0]);
+		price(ItemID.COINS_995, 1, 1);
+		price(ItemID.ABYSSAL_WHIP, 1_500_000, 72_000);
+		price(ItemID.SHARK, 900, 180);
+	}
+
+	private void price(int itemId, int gePrice, int haPrice)
+	{
+		when(itemManager.getItemPrice(itemId)).thenReturn(gePrice);
+		when(itemManager.getAlchValue(itemId)).thenReturn(haPrice);
+	}
+
+	private void setItems(Item... items)
+	{
+		when(inventory.getItems()).thenReturn(items);
+		containerValuationService.onItemContainerChanged(new ItemContainerChanged(inventory));
+	}
+
+	private static Item item(int id, int quantity)
+	{
+		Item item = mock(Item.class);
+		when(item.getId()).thenReturn(id);
+		when(item.getQuantity()).thenReturn(quantity);
+		return item;
+	}
+
+	@Test
+	public void testValue()
+	{
+		setItems(item(ItemID.ABYSSAL_WHIP, 1), item(-1, 0), item(ItemID.SHARK, 10), item(ItemID.COINS_995, 5000));
+
+		ContainerValuationService.ContainerValue value = containerValuationService.getValue(InventoryID.INVENTORY);
+		assertEquals(1_500_000 + 9000 + 5000, value.getGePrice());
+		assertEquals(72_000 + 1800 + 5000, value.getHaPrice());
+		assertSame(value, containerValuationService.getValue(InventoryID.INVENTORY));
+
+		ContainerValuationService.ContainerValue range = containerValuationService.getValue(InventoryID.INVENTORY, 1, 3);
+		assertEquals(9000, range.getGePrice());
+	}
+
+	@Test
+	public void testSlotDelta()
+	{
+		setItems(item(ItemID.ABYSSAL_WHIP, 1), item(ItemID.SHARK, 10));
+		// eat a shark
+		setItems(item(ItemID.ABYSSAL_WHIP, 1), item(ItemID.SHARK, 9));
+
+		assertEquals(1_500_000 + 8100, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+		// the unchanged whip was only valued once
+		verify(itemManager, times(1)).canonicalize(ItemID.ABYSSAL_WHIP);
+		verify(itemManager, times(2)).canonicalize(ItemID.SHARK);
+
+		// container shrinks
+		setItems(item(ItemID.SHARK, 9));
+		assertEquals(8100, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+	}
+
+	@Test
+	public void testPriceReload()
+	{
+		setItems(item(ItemID.ABYSSAL_WHIP, 2));
+		assertEquals(3_000_000, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+
+		price(ItemID.ABYSSAL_WHIP, 1_400_000, 72_000);
+		when(itemManager.getPriceGeneration()).thenReturn(1);
+
+		ContainerValuationService.ContainerValue value = containerValuationService.getValue(InventoryID.INVENTORY);
+		assertEquals(2_800_000, value.getGePrice());
+		assertEquals(144_000, value.getHaPrice());
+		verify(itemManager, times(1)).canonicalize(ItemID.ABYSSAL_WHIP);
+	}
+
+	@Test
+	public void testUnchangedContainer()
+	{
+		Item[] items = {item(ItemID.ABYSSAL_WHIP, 1)};
+		ItemContainer equipment = mock(ItemContainer.class);
+		when(equipment.getItems()).thenReturn(items);
+		when(client.getItemContainer(InventoryID.EQUIPMENT)).thenReturn(equipment);
+
+		assertEquals(1_500_000, containerValuationService.getValue(InventoryID.EQUIPMENT).getGePrice());
+		assertNull(containerValuationService.getValue(InventoryID.BANK));
+	}
+
+	@Test
+	public void testContainerRemoved()
+	{
+		setItems(item(ItemID.ABYSSAL_WHIP, 1));
+		assertEquals(1_500_000, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+
+		when(client.getItemContainer(InventoryID.INVENTORY)).thenReturn(null);
+		assertNull(containerValuationService.getValue(InventoryID.INVENTORY));
+		assertNull(containerValuationService.getValue(InventoryID.INVENTORY, 0, 28));
+
+		// a new container is valued from scratch
+		ItemContainer newInventory = mock(ItemContainer.class);
+		Item[] items = {item(ItemID.SHARK, 1)};
+		when(newInventory.getItems()).thenReturn(items);
+		when(client.getItemContainer(InventoryID.INVENTORY)).thenReturn(newInventory);
+		assertEquals(900, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+	}
+
+	@Test
+	public void testLogout()
+	{
+		setItems(item(ItemID.ABYSSAL_WHIP, 1));
+		assertEquals(1_500_000, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+
+		GameStateChanged gameStateChanged = new GameStateChanged();
+		gameStateChanged.setGameState(GameState.LOGIN_SCREEN);
+		containerValuationService.onGameStateChanged(gameStateChanged);
+
+		// the client still has the old container, which is valued again
+		Item[] items = {item(ItemID.SHARK, 2)};
+		when(inventory.getItems()).thenReturn(items);
+		assertEquals(1800, containerValuationService.getValue(InventoryID.INVENTORY).getGePrice());
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ItemIconStoreTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ItemIconStore store;
+
+	@Before
+	public void before()
+	{
+		store = new ItemIconStore(folder.getRoot());
+	}
+
+	@Test
+	public void testSaveLoad()
+	{
+		BufferedImage image = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, 0xFF123456);
+		image.setRGB(35, 31, 0x80FFFFFF);
+		store.save(180, 4151, 1, false, image);
+
+		BufferedImage loaded = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		assertTrue(store.load(180, 4151, 1, false, loaded));
+		assertEquals(0xFF123456, loaded.getRGB(0, 0));
+		assertEquals(0x80FFFFFF, loaded.getRGB(35, 31));
+		assertEquals(0, loaded.getRGB(1, 1));
+
+		// every part of the key has to match
+		assertFalse(store.load(180, 4151, 2, false, loaded));
+		assertFalse(store.load(180, 4151, 1, true, loaded));
+		assertFalse(store.load(180, 4152, 1, false, loaded));
+	}
+
+	@Test
+	public void testRevisionPurge()
+	{
+		BufferedImage image = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		store.save(180, 4151, 1, false, image);
+		assertTrue(new File(folder.getRoot(), "180").exists());
+
+		BufferedImage loaded = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		assertFalse(store.load(181, 4151, 1, false, loaded));
+		assertFalse(new File(folder.getRoot(), "180").exists());
+
+		// a new store on the same directory still sees the current revision
+		store.save(181, 4151, 1, false, image);
+		assertTrue(new ItemIconStore(folder.getRoot()).load(181, 4151, 1, false, loaded));
+	}
+
+	@Test
+	public void testSizeMismatch()
+	{
+		store.save(180, 4151, 1, false, new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+
+		assertFalse(store.load(180, 4151, 1, false, new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB)));
+	}
+}
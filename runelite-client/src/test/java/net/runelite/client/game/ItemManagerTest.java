@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.ItemID;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ItemManagerTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	ScheduledExecutorService executor;
+
+	@Mock
+	@Bind
+	ClientThread clientThread;
+
+	@Inject
+	ItemManager itemManager;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+	}
+
+	private static ItemPrice price(int id, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setPrice(price);
+		return itemPrice;
+	}
+
+	@Test
+	public void testGetItemPrice()
+	{
+		assertEquals(1, itemManager.getItemPrice(ItemID.COINS_995));
+		assertEquals(0, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+
+		itemManager.setPrices(new ItemPrice[]{
+			price(ItemID.ABYSSAL_WHIP, 1_500_000),
+			price(ItemID.KRAKEN_TENTACLE, 800_000),
+			price(ItemID.SOFT_CLAY, 5),
+			price(ItemID.AMULET_OF_GLORY, 12_000),
+		});
+
+		assertEquals(1, itemManager.getItemPrice(ItemID.COINS_995));
+		assertEquals(1000, itemManager.getItemPrice(ItemID.PLATINUM_TOKEN));
+		assertEquals(1_500_000, itemManager.getItemPrice(ItemID.ABYSSAL_WHIP));
+		// Mapped to the kraken tentacle
+		assertEquals(800_000, itemManager.getItemPrice(ItemID.ABYSSAL_TENTACLE));
+		// Untradeable, priced as golden nuggets which are priced as soft clay
+		assertEquals(24 * 10 * 5, itemManager.getItemPrice(ItemID.PROSPECTOR_BOOTS));
+		// Untradeable charge of the priced item
+		assertEquals(12_000, itemManager.getItemPrice(ItemID.AMULET_OF_GLORY1));
+		assertEquals(0, itemManager.getItemPrice(-1));
+		assertEquals(0, itemManager.getItemPrice(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testQuantityBucket()
+	{
+		assertEquals(99_999, ItemManager.quantityBucket(99_999));
+		assertEquals(100_000, ItemManager.quantityBucket(100_999));
+		assertEquals(9_999_000, ItemManager.quantityBucket(9_999_999));
+		assertEquals(10_000_000, ItemManager.quantityBucket(10_999_999));
+	}
+
+	@Test
+	public void testImageCache()
+	{
+		AsyncBufferedImage whip = itemManager.getImage(ItemID.ABYSSAL_WHIP);
+		assertSame(whip, itemManager.getImage(ItemID.ABYSSAL_WHIP));
+		// Both show as 150K
+		AsyncBufferedImage coins = itemManager.getImage(ItemID.COINS_995, 150_500, true);
+		assertSame(coins, itemManager.getImage(ItemID.COINS_995, 150_999, true));
+
+		ItemIconCacheStats stats = itemManager.getImageCacheStats();
+		assertEquals(2, stats.getMemoryHits());
+		assertEquals(2, stats.getMemoryMisses());
+		assertEquals(2 * 36 * 32 * 4, stats.getMemoryBytes());
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.ItemID;
+import net.runelite.http.api.item.ItemPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Searches the names of every item in {@link ItemID} with {@link ItemNameIndex} and with the
+ * linear scan it replaced. Run with {@link #main(String[])} from the IDE after test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemNameIndexBenchmark
+{
+	@Param({"a", "dr", "rune", "abyssal whip"})
+	private String query;
+
+	private List<ItemPrice> prices;
+	private ItemNameIndex index;
+
+	@Setup
+	public void setup() throws IllegalAccessException
+	{
+		prices = new ArrayList<>();
+		for (Field field : ItemID.class.getDeclaredFields())
+		{
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == int.class)
+			{
+				ItemPrice price = new ItemPrice();
+				price.setId(field.getInt(null));
+				price.setName(field.getName().replace('_', ' '));
+				prices.add(price);
+			}
+		}
+
+		index = new ItemNameIndex(prices);
+	}
+
+	@Benchmark
+	public List<ItemPrice> index()
+	{
+		return index.search(query);
+	}
+
+	@Benchmark
+	public List<ItemPrice> linearScan()
+	{
+		final String lowerQuery = query.toLowerCase();
+		final List<ItemPrice> result = new ArrayList<>();
+		for (ItemPrice price : prices)
+		{
+			if (price.getName().toLowerCase().contains(lowerQuery))
+			{
+				result.add(price);
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public ItemNameIndex build()
+	{
+		return new ItemNameIndex(prices);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ItemNameIndexBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ItemNameIndexTest
+{
+	private static final ItemNameIndex INDEX = new ItemNameIndex(Arrays.asList(
+		price(1, "Abyssal whip"),
+		price(2, "Whip"),
+		price(3, "Volcanic abyssal whip"),
+		price(4, "Whipped cream"),
+		price(5, "Rune platebody"),
+		price(6, "Dragon platebody"),
+		price(7, "Bowhip"),
+		price(8, null)
+	));
+
+	@Test
+	public void testRanking()
+	{
+		assertEquals(Arrays.asList("Whip", "Whipped cream", "Abyssal whip", "Volcanic abyssal whip", "Bowhip"),
+			names(INDEX.search("whip")));
+	}
+
+	@Test
+	public void testShortQuery()
+	{
+		assertEquals(Arrays.asList("Bowhip", "Abyssal whip", "Rune platebody", "Dragon platebody", "Volcanic abyssal whip"),
+			names(INDEX.search("b")));
+		assertEquals(Arrays.asList("Rune platebody", "Dragon platebody"), names(INDEX.search("pl")));
+	}
+
+	@Test
+	public void testCaseInsensitive()
+	{
+		assertEquals(Arrays.asList("Dragon platebody"), names(INDEX.search("DRAGON PLATE")));
+	}
+
+	@Test
+	public void testTrigramsMustBeContiguous()
+	{
+		// every trigram of the query is in the name, but not the query itself
+		List<ItemPrice> result = new ItemNameIndex(Arrays.asList(price(1, "abcd bcde"))).search("abcde");
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void testNoMatch()
+	{
+		assertTrue(INDEX.search("zz").isEmpty());
+		assertTrue(INDEX.search("twisted bow").isEmpty());
+	}
+
+	@Test
+	public void testEmptyQuery()
+	{
+		assertEquals(7, INDEX.search("").size());
+		assertEquals(7, INDEX.size());
+	}
+
+	private static ItemPrice price(int id, String name)
+	{
+		ItemPrice price = new ItemPrice();
+		price.setId(id);
+		price.setName(name);
+		return price;
+	}
+
+	private static List<String> names(List<ItemPrice> prices)
+	{
+		return prices.stream()
+			.map(ItemPrice::getName)
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.Client;
+import net.runelite.api.ItemID;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.http.api.item.ItemPrice;
+import static org.mockito.Mockito.mock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Prices a full bank with {@link ItemManager#getItemPrice(int)} and with the mapping lookups it replaced.
+ * Run with {@link #main(String[])} from the IDE after test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemPriceBenchmark
+{
+	private static final int BANK_SIZE = 816;
+	private static final int PRICED_ITEMS = 24000;
+
+	private ItemManager itemManager;
+	private Map<Integer, ItemPrice> itemPrices;
+	private int[] bank;
+
+	@Setup
+	public void setup()
+	{
+		itemManager = new ItemManager(mock(Client.class), mock(ScheduledExecutorService.class), mock(ClientThread.class));
+
+		final ItemPrice[] prices = new ItemPrice[PRICED_ITEMS];
+		itemPrices = new HashMap<>();
+		for (int i = 0; i < prices.length; ++i)
+		{
+			final ItemPrice price = new ItemPrice();
+			price.setId(i);
+			price.setPrice(i * 3);
+			prices[i] = price;
+			itemPrices.put(i, price);
+		}
+
+		itemManager.setPrices(prices);
+
+		// Mostly plain items, with some which go through the item mappings
+		final int[] mapped = {ItemID.COINS_995, ItemID.BLACK_MASK_10_I, ItemID.AMULET_OF_GLORY4, ItemID.PROSPECTOR_BOOTS, ItemID.DHAROKS_HELM_100};
+		final Random random = new Random(816);
+		bank = new int[BANK_SIZE];
+		for (int i = 0; i < bank.length; ++i)
+		{
+			bank[i] = i % 10 == 0 ? mapped[random.nextInt(mapped.length)] : random.nextInt(PRICED_ITEMS);
+		}
+	}
+
+	@Benchmark
+	public long priceTable()
+	{
+		long total = 0;
+		for (int itemId : bank)
+		{
+			total += itemManager.getItemPrice(itemId);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long mappingLookup()
+	{
+		long total = 0;
+		for (int itemId : bank)
+		{
+			total += ItemManager.lookupItemPrice(itemPrices, itemId);
+		}
+		return total;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(ItemPriceBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
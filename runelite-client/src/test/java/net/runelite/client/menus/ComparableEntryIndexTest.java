@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import net.runelite.api.MenuEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class ComparableEntryIndexTest
+{
+	private static MenuEntry entry(String option, String target)
+	{
+		MenuEntry entry = new MenuEntry();
+		entry.setOption(option);
+		entry.setTarget(target);
+		return entry;
+	}
+
+	private static ComparableEntry find(ComparableEntryIndex index, String option, String target)
+	{
+		return index.find(entry(option, target), option, target);
+	}
+
+	@Test
+	public void testStrictOption()
+	{
+		ComparableEntryIndex index = new ComparableEntryIndex();
+		ComparableEntry bank = new ComparableEntry("bank", "banker");
+		index.add(bank);
+
+		assertEquals(bank, find(index, "bank", "banker"));
+		assertNull(find(index, "bank", "bank chest"));
+		assertNull(find(index, "banker", "banker"));
+	}
+
+	@Test
+	public void testContainsOption()
+	{
+		ComparableEntryIndex index = new ComparableEntryIndex();
+		ComparableEntry rub = new ComparableEntry("rub", "", -1, -1, false, false);
+		ComparableEntry teleport = new ComparableEntry("teleport", "ring", -1, -1, false, false);
+		ComparableEntry port = new ComparableEntry("port", "glory", -1, -1, false, false);
+		index.add(rub);
+		index.add(teleport);
+		index.add(port);
+
+		assertEquals(rub, find(index, "rub", "amulet of glory"));
+		assertEquals(teleport, find(index, "grand exchange teleport", "ring"));
+		// "port" is only found through the failure link of "teleport"
+		assertEquals(port, find(index, "teleport", "amulet of glory(4)"));
+		assertNull(find(index, "wear", "amulet of glory"));
+
+		index.remove(teleport);
+		assertNull(find(index, "grand exchange teleport", "ring"));
+		assertEquals(port, find(index, "teleport", "amulet of glory(4)"));
+	}
+
+	@Test
+	public void testEmptyOption()
+	{
+		ComparableEntryIndex index = new ComparableEntryIndex();
+		ComparableEntry any = new ComparableEntry("", "goblin", -1, -1, false, true);
+		index.add(any);
+
+		assertEquals(any, find(index, "attack", "goblin"));
+		assertNull(find(index, "attack", "guard"));
+	}
+}
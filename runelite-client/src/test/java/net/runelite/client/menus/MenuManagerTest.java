@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.client.eventbus.EventBus;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MenuManagerTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	EventBus eventBus;
+
+	@Inject
+	MenuManager menuManager;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+	}
+
+	private static MenuEntry entry(String option, String target)
+	{
+		MenuEntry entry = new MenuEntry();
+		entry.setOption(option);
+		entry.setTarget(target);
+		entry.setType(MenuAction.NPC_FIRST_OPTION.getId());
+		return entry;
+	}
+
+	private MenuEntry[] add(MenuEntry... entries)
+	{
+		when(client.getMenuEntries()).thenReturn(entries);
+		MenuEntry last = entries[entries.length - 1];
+		menuManager.onMenuEntryAdded(new MenuEntryAdded(last.getOption(), last.getTarget(), last.getType(), 0, 0, 0));
+		return entries;
+	}
+
+	@Test
+	public void testSwap()
+	{
+		menuManager.addSwap("talk-to", "banker", "bank", "banker", true, true);
+
+		MenuEntry cancel = entry("Cancel", "");
+		MenuEntry bank = entry("Bank", "<col=ffff00>Banker");
+		MenuEntry talk = entry("Talk-to", "<col=ffff00>Banker  (level-0)");
+
+		MenuEntry[] entries = add(cancel, bank, talk);
+
+		ArgumentCaptor<MenuEntry[]> captor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(client).setMenuEntries(captor.capture());
+		assertEquals(bank, captor.getValue()[2]);
+		assertEquals(talk, captor.getValue()[1]);
+		// Swapped in place
+		assertEquals(entries, captor.getValue());
+	}
+
+	@Test
+	public void testNoSwap()
+	{
+		menuManager.addSwap("talk-to", "banker", "bank", "banker", true, true);
+		menuManager.removeSwap("talk-to", "banker", "bank", "banker", true, true);
+
+		add(entry("Cancel", ""), entry("Bank", "Banker"), entry("Talk-to", "Banker"));
+
+		verify(client, never()).setMenuEntries(any(MenuEntry[].class));
+	}
+
+	@Test
+	public void testPriorityEntry()
+	{
+		menuManager.addPriorityEntry("climb-up");
+
+		MenuEntry climb = entry("Climb-up", "Ladder");
+		add(entry("Cancel", ""), entry("Walk here", ""), climb);
+
+		ArgumentCaptor<MenuEntry[]> captor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(client).setMenuEntries(captor.capture());
+		assertEquals(2, captor.getValue().length);
+		assertEquals("Cancel", captor.getValue()[0].getOption());
+		assertEquals(climb, captor.getValue()[1]);
+	}
+}
@@ -29,6 +29,7 @@ import com.google.common.reflect.ClassPath.ClassInfo;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Module;
+import com.google.inject.Provides;
 import com.google.inject.grapher.graphviz.GraphvizGrapher;
 import com.google.inject.grapher.graphviz.GraphvizModule;
 import com.google.inject.testing.fieldbinder.Bind;
@@ -37,25 +38,46 @@ import com.google.inject.util.Modules;
 import java.applet.Applet;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
 import net.runelite.api.Client;
+import net.runelite.api.events.ConfigChanged;
 import net.runelite.client.RuneLite;
 import net.runelite.client.RuneLiteModule;
+import net.runelite.client.config.Config;
+import net.runelite.client.config.ConfigGroup;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.rs.ClientUpdateCheckMode;
+import net.runelite.client.task.Scheduler;
+import net.runelite.http.api.RuneLiteAPI;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import static org.mockito.Mockito.when;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -74,8 +96,22 @@ public class PluginManagerTest
 	@Bind
 	public Client client;
 
+	@Mock
+	private ConfigManager configManager;
+
+	@Mock
+	private RuneLiteConfig runeLiteConfig;
+
+	@Mock
+	private LazyConfig lazyConfig;
+
 	private Set<Class> pluginClasses;
 
+	private static final List<Plugin> preStartUps = Collections.synchronizedList(new ArrayList<>());
+	private static final List<Plugin> startUps = Collections.synchronizedList(new ArrayList<>());
+	private static final List<ConfigChanged> configChanges = Collections.synchronizedList(new ArrayList<>());
+	private static EventBus startupEventBus;
+
 	@Before
 	public void before() throws IOException
 	{
@@ -85,6 +121,8 @@ public class PluginManagerTest
 
 		RuneLite.setInjector(injector);
 
+		when(configManager.getConfig(RuneLiteConfig.class)).thenReturn(runeLiteConfig);
+
 		// Find plugins we expect to have
 		pluginClasses = new HashSet<>();
 		Set<ClassInfo> classes = ClassPath.from(getClass().getClassLoader()).getTopLevelClassesRecursive(PLUGIN_PACKAGE);
@@ -103,7 +141,7 @@ public class PluginManagerTest
 	@Test
 	public void testLoadPlugins() throws Exception
 	{
-		PluginManager pluginManager = new PluginManager(false, null, null, null, null, null);
+		PluginManager pluginManager = new PluginManager(false, null, null, configManager, null, null);
 		pluginManager.setOutdated(true);
 		pluginManager.loadCorePlugins();
 		Collection<Plugin> plugins = pluginManager.getPlugins();
@@ -114,7 +152,7 @@ public class PluginManagerTest
 			.count();
 		assertEquals(expected, plugins.size());
 
-		pluginManager = new PluginManager(false, null, null, null, null, null);
+		pluginManager = new PluginManager(false, null, null, configManager, null, null);
 		pluginManager.loadCorePlugins();
 		plugins = pluginManager.getPlugins();
 
@@ -130,6 +168,124 @@ public class PluginManagerTest
 		assertEquals(expected, plugins.size());
 	}
 
+	@Test
+	public void testPluginManifest() throws Exception
+	{
+		PluginManifestEntry[] entries;
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream("META-INF/runelite/plugins.json"))
+		{
+			assertNotNull("plugin manifest was not generated", in);
+			entries = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), PluginManifestEntry[].class);
+		}
+
+		Set<Class> manifestClasses = new HashSet<>();
+		for (PluginManifestEntry entry : entries)
+		{
+			Class<?> clazz = Class.forName(entry.getClassName());
+			PluginDescriptor descriptor = clazz.getAnnotation(PluginDescriptor.class);
+			assertEquals(descriptor.name(), entry.getName());
+			assertEquals(descriptor.developerPlugin(), entry.isDeveloperPlugin());
+			assertEquals(descriptor.loadWhenOutdated(), entry.isLoadWhenOutdated());
+
+			Set<String> dependencies = Arrays.stream(clazz.getAnnotationsByType(PluginDependency.class))
+				.map(d -> d.value().getName())
+				.collect(Collectors.toSet());
+			assertEquals(dependencies, new HashSet<>(entry.getDependencies()));
+
+			manifestClasses.add(clazz);
+		}
+
+		assertEquals(pluginClasses, manifestClasses);
+	}
+
+	@Test
+	public void testStartCorePlugins()
+	{
+		preStartUps.clear();
+		startUps.clear();
+		configChanges.clear();
+
+		startupEventBus = new EventBus();
+		PluginManager pluginManager = new PluginManager(false, startupEventBus, new Scheduler(), configManager, null, null);
+
+		Plugin first = new FirstPlugin();
+		Plugin failsPreStartUp = new FailingPreStartUpPlugin();
+		Plugin errorsPreStartUp = new ErrorPreStartUpPlugin();
+		Plugin second = new SecondPlugin();
+		Plugin failsStartUp = new FailingStartUpPlugin();
+		Plugin third = new ThirdPlugin();
+
+		// in the order loadCorePlugins sorts them, dependencies first
+		pluginManager.add(first);
+		pluginManager.add(failsPreStartUp);
+		pluginManager.add(errorsPreStartUp);
+		pluginManager.add(second);
+		pluginManager.add(failsStartUp);
+		pluginManager.add(third);
+
+		pluginManager.startCorePlugins();
+
+		// startUp runs in dependency order, and each preStartUp waits for its dependencies
+		assertEquals(Arrays.asList(first, second, third), startUps);
+		assertTrue(preStartUps.indexOf(first) < preStartUps.indexOf(second));
+		assertTrue(preStartUps.indexOf(second) < preStartUps.indexOf(third));
+
+		assertTrue(pluginManager.isPluginActive(first));
+		assertTrue(pluginManager.isPluginActive(second));
+		assertTrue(pluginManager.isPluginActive(third));
+
+		// plugins which failed to start are neither active nor loaded
+		assertFalse(pluginManager.isPluginActive(failsPreStartUp));
+		assertFalse(pluginManager.isPluginActive(errorsPreStartUp));
+		assertFalse(pluginManager.isPluginActive(failsStartUp));
+		assertEquals(Arrays.asList(first, second, third), new ArrayList<>(pluginManager.getPlugins()));
+
+		// each plugin is registered as soon as it has started, so it sees the events of later startUps
+		assertEquals(1, configChanges.size());
+	}
+
+	@Test
+	public void testLazyLoadPlugins() throws Exception
+	{
+		when(runeLiteConfig.lazyLoadPlugins()).thenReturn(true);
+
+		PluginManager pluginManager = new PluginManager(false, null, null, configManager, null, null);
+		pluginManager.loadCorePlugins();
+
+		// only plugins which are disabled, and not needed by an enabled plugin, are deferred
+		boolean deferred = false;
+		for (Plugin plugin : pluginManager.getPlugins())
+		{
+			if (plugin.getInjector() == null)
+			{
+				assertFalse(pluginManager.isPluginEnabled(plugin));
+				deferred = true;
+			}
+		}
+		assertTrue(deferred);
+	}
+
+	@Test
+	public void testStartLazyPlugin() throws Exception
+	{
+		when(configManager.getConfig(LazyConfig.class)).thenReturn(lazyConfig);
+
+		PluginManager pluginManager = new PluginManager(false, new EventBus(), new Scheduler(), configManager, null, null);
+		LazyPlugin plugin = new LazyPlugin();
+		pluginManager.add(plugin);
+
+		// the config comes from the @Provides method before the plugin has an injector
+		assertNull(plugin.getInjector());
+		assertSame(lazyConfig, pluginManager.getPluginConfigProxy(plugin));
+		assertTrue(pluginManager.getPluginConfigProxies().contains(lazyConfig));
+
+		assertTrue(pluginManager.startPlugin(plugin));
+
+		assertNotNull(plugin.getInjector());
+		assertSame(client, plugin.client);
+		assertTrue(pluginManager.isPluginActive(plugin));
+	}
+
 	@Test
 	public void dumpGraph() throws Exception
 	{
@@ -137,7 +293,7 @@ public class PluginManagerTest
 		modules.add(new GraphvizModule());
 		modules.add(new RuneLiteModule(ClientUpdateCheckMode.AUTO, true));
 
-		PluginManager pluginManager = new PluginManager(true, null, null, null, null, null);
+		PluginManager pluginManager = new PluginManager(true, null, null, configManager, null, null);
 		pluginManager.loadCorePlugins();
 		for (Plugin p : pluginManager.getPlugins())
 		{
@@ -155,4 +311,96 @@ public class PluginManagerTest
 		}
 	}
 
+	private static class RecordingPlugin extends Plugin
+	{
+		@Override
+		protected void preStartUp() throws Exception
+		{
+			preStartUps.add(this);
+		}
+
+		@Override
+		protected void startUp() throws Exception
+		{
+			startUps.add(this);
+		}
+	}
+
+	public static class FirstPlugin extends RecordingPlugin
+	{
+		@Override
+		protected void preStartUp() throws Exception
+		{
+			// give the plugins which depend on this one a chance to run too early
+			Thread.sleep(50);
+			super.preStartUp();
+		}
+
+		@Subscribe
+		public void onConfigChanged(ConfigChanged configChanged)
+		{
+			configChanges.add(configChanged);
+		}
+	}
+
+	@PluginDependency(FirstPlugin.class)
+	public static class SecondPlugin extends RecordingPlugin
+	{
+		@Override
+		protected void startUp() throws Exception
+		{
+			super.startUp();
+			startupEventBus.post(new ConfigChanged());
+		}
+	}
+
+	@PluginDependency(SecondPlugin.class)
+	public static class ThirdPlugin extends RecordingPlugin
+	{
+	}
+
+	public static class FailingPreStartUpPlugin extends RecordingPlugin
+	{
+		@Override
+		protected void preStartUp() throws Exception
+		{
+			throw new IOException("test");
+		}
+	}
+
+	public static class ErrorPreStartUpPlugin extends RecordingPlugin
+	{
+		@Override
+		protected void preStartUp() throws Exception
+		{
+			throw new NoClassDefFoundError("test");
+		}
+	}
+
+	@PluginDependency(FirstPlugin.class)
+	public static class FailingStartUpPlugin extends RecordingPlugin
+	{
+		@Override
+		protected void startUp() throws Exception
+		{
+			throw new IllegalStateException("test");
+		}
+	}
+
+	@ConfigGroup("lazytest")
+	public interface LazyConfig extends Config
+	{
+	}
+
+	public static class LazyPlugin extends Plugin
+	{
+		@Inject
+		private Client client;
+
+		@Provides
+		LazyConfig getConfig(ConfigManager configManager)
+		{
+			return configManager.getConfig(LazyConfig.class);
+		}
+	}
 }
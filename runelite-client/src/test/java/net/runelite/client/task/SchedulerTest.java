@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.task;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchedulerTest
+{
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private Scheduler scheduler;
+
+	@Before
+	public void before()
+	{
+		scheduler = new Scheduler();
+	}
+
+	@Test
+	public void testTick()
+	{
+		Tasks tasks = new Tasks();
+		long start = System.nanoTime();
+		scheduler.registerObject(tasks);
+
+		scheduler.tick(start);
+		assertEquals(0, tasks.first);
+
+		scheduler.tick(start + 3 * SECOND);
+		assertEquals(1, tasks.first);
+		assertEquals(1, tasks.second);
+
+		// not due again until a second after it last ran
+		scheduler.tick(start + 3 * SECOND + SECOND / 2);
+		assertEquals(1, tasks.first);
+
+		scheduler.tick(start + 10 * SECOND);
+		assertEquals(2, tasks.first);
+
+		ScheduledMethod method = scheduler.getScheduledMethods().get(0);
+		assertEquals(2, method.getExecutions());
+		assertEquals(2, method.getLateFires());
+	}
+
+	@Test
+	public void testLongPeriod()
+	{
+		LongTask task = new LongTask();
+		long start = System.nanoTime();
+		scheduler.registerObject(task);
+
+		// more than a revolution of the wheel, but not yet due
+		scheduler.tick(start + 40 * SECOND);
+		assertEquals(0, task.count);
+
+		scheduler.tick(start + 61 * SECOND);
+		assertEquals(1, task.count);
+	}
+
+	@Test
+	public void testUnregisterObject()
+	{
+		Tasks tasks = new Tasks();
+		long start = System.nanoTime();
+		scheduler.registerObject(tasks);
+		assertEquals(2, scheduler.getScheduledMethods().size());
+
+		scheduler.unregisterObject(tasks);
+		assertTrue(scheduler.getScheduledMethods().isEmpty());
+
+		scheduler.tick(start + 2 * SECOND);
+		assertEquals(0, tasks.first);
+		assertEquals(0, tasks.second);
+	}
+
+	@Test
+	public void testAsynchronous() throws InterruptedException
+	{
+		AsyncTask task = new AsyncTask();
+		long start = System.nanoTime();
+		scheduler.registerObject(task);
+
+		scheduler.tick(start + 2 * SECOND);
+		assertTrue(task.latch.await(5, TimeUnit.SECONDS));
+		assertNotEquals(Thread.currentThread(), task.thread);
+	}
+
+	public static class Tasks
+	{
+		int first;
+		int second;
+
+		@Schedule(period = 1, unit = ChronoUnit.SECONDS)
+		public void first()
+		{
+			++first;
+		}
+
+		@Schedule(period = 1, unit = ChronoUnit.SECONDS)
+		public void second()
+		{
+			++second;
+		}
+	}
+
+	public static class LongTask
+	{
+		int count;
+
+		@Schedule(period = 1, unit = ChronoUnit.MINUTES)
+		public void run()
+		{
+			++count;
+		}
+	}
+
+	public static class AsyncTask
+	{
+		final CountDownLatch latch = new CountDownLatch(1);
+		volatile Thread thread;
+
+		@Schedule(period = 1, unit = ChronoUnit.SECONDS, asynchronous = true)
+		public void run()
+		{
+			thread = Thread.currentThread();
+			latch.countDown();
+		}
+	}
+}
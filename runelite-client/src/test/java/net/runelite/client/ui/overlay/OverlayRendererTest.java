@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Point;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.FontType;
+import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.input.MouseManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OverlayRendererTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	ConfigManager configManager;
+
+	@Mock
+	@Bind
+	EventBus eventBus;
+
+	@Mock
+	@Bind
+	RuneLiteConfig runeLiteConfig;
+
+	@Mock
+	@Bind
+	MouseManager mouseManager;
+
+	@Mock
+	@Bind
+	KeyManager keyManager;
+
+	@Mock
+	Widget viewport;
+
+	@Inject
+	OverlayManager overlayManager;
+
+	@Inject
+	OverlayRenderer overlayRenderer;
+
+	private static class CountingOverlay extends Overlay
+	{
+		private int renders;
+
+		CountingOverlay()
+		{
+			setPosition(OverlayPosition.TOP_LEFT);
+			setRetained(true);
+			getInvalidations().add(OverlayInvalidation.GAME_TICK);
+		}
+
+		@Override
+		public Dimension render(Graphics2D graphics)
+		{
+			++renders;
+			graphics.setColor(Color.RED);
+			graphics.fillRect(0, 0, 20, 10);
+			return new Dimension(20, 10);
+		}
+	}
+
+	private static class SlowOverlay extends Overlay
+	{
+		private int renders;
+
+		SlowOverlay()
+		{
+			setPosition(OverlayPosition.TOP_LEFT);
+			setPriority(OverlayPriority.LOW);
+		}
+
+		@Override
+		public Dimension render(Graphics2D graphics)
+		{
+			++renders;
+
+			try
+			{
+				Thread.sleep(2);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			return new Dimension(20, 10);
+		}
+	}
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+		when(client.getViewportWidget()).thenReturn(viewport);
+		when(client.isResized()).thenReturn(true);
+		when(client.getMouseCanvasPosition()).thenReturn(new Point(-1, -1));
+		when(client.getRealDimensions()).thenReturn(new Dimension(200, 200));
+		when(viewport.getBounds()).thenReturn(new Rectangle(0, 0, 200, 200));
+		when(runeLiteConfig.interfaceFontType()).thenReturn(FontType.REGULAR);
+	}
+
+	@Test
+	public void testRetainedRender()
+	{
+		final CountingOverlay overlay = new CountingOverlay();
+		overlayManager.add(overlay);
+
+		final BufferedImage canvas = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+		render(canvas);
+		// The first frame renders twice, as the size of the overlay is not known up front
+		assertEquals(2, overlay.renders);
+		render(canvas);
+		assertEquals(2, overlay.renders);
+		assertEquals(new Dimension(20, 10), overlay.getBounds().getSize());
+
+		// The retained image is drawn at the overlay location
+		final Rectangle bounds = overlay.getBounds();
+		assertEquals(Color.RED.getRGB(), canvas.getRGB(bounds.x, bounds.y));
+		assertEquals(0, canvas.getRGB(bounds.x + bounds.width, bounds.y));
+
+		// Events the overlay did not declare leave it alone
+		overlayRenderer.onVarbitChanged(new VarbitChanged());
+		render(canvas);
+		assertEquals(2, overlay.renders);
+
+		overlayRenderer.onGameTick(new GameTick());
+		render(canvas);
+		render(canvas);
+		assertEquals(3, overlay.renders);
+
+		overlay.invalidate();
+		render(canvas);
+		assertEquals(4, overlay.renders);
+	}
+
+	@Test
+	public void testThrottle()
+	{
+		when(runeLiteConfig.overlayFrameBudget()).thenReturn(1);
+
+		final SlowOverlay overlay = new SlowOverlay();
+		overlayManager.add(overlay);
+
+		final BufferedImage canvas = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+		frame(canvas);
+		assertEquals(1, overlay.renders);
+
+		// Frame 1 was over budget, so from frame 2 the overlay is only rendered every few frames.
+		// Only the frames which render it are over budget, the ones in between are under.
+		for (int frame = 2; frame <= 9; ++frame)
+		{
+			frame(canvas);
+		}
+
+		// rendered at frames 1, 2 and 6
+		assertEquals(3, overlay.renders);
+		assertEquals(new Dimension(20, 10), overlay.getBounds().getSize());
+
+		OverlayTiming timing = overlayRenderer.getOverlayTimings().get(0);
+		assertEquals(9, timing.getFrames());
+		assertEquals(6, timing.getThrottledFrames());
+		assertTrue(timing.getMaxNanos() >= 2_000_000);
+
+		// Every frame is under budget from now on. The last over budget frame was frame 6, so the
+		// overlay stays throttled until frames 7 to 6 + THROTTLE_RELEASE_FRAMES have all been under.
+		when(runeLiteConfig.overlayFrameBudget()).thenReturn(1000);
+		final int releaseFrame = 7 + OverlayRenderer.THROTTLE_RELEASE_FRAMES;
+		int expectedRenders = 3;
+
+		for (int frame = 10; frame < releaseFrame; ++frame)
+		{
+			frame(canvas);
+
+			if ((frame - 6) % OverlayRenderer.THROTTLE_INTERVAL == 0)
+			{
+				++expectedRenders;
+			}
+
+			assertEquals("frame " + frame, expectedRenders, overlay.renders);
+		}
+
+		// No longer throttled
+		for (int frame = releaseFrame; frame < releaseFrame + OverlayRenderer.THROTTLE_INTERVAL; ++frame)
+		{
+			frame(canvas);
+			assertEquals("frame " + frame, ++expectedRenders, overlay.renders);
+		}
+
+		timing = overlayRenderer.getOverlayTimings().get(0);
+		assertEquals(releaseFrame + OverlayRenderer.THROTTLE_INTERVAL - 1, timing.getFrames());
+		assertEquals(timing.getFrames() - expectedRenders, timing.getThrottledFrames());
+	}
+
+	@Test
+	public void testMBean() throws Exception
+	{
+		overlayManager.add(new CountingOverlay());
+		render(new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB));
+
+		final MBeanServer server = MBeanServerFactory.newMBeanServer();
+		final ObjectName name = new ObjectName("net.runelite.client:type=OverlayRenderer");
+		server.registerMBean(overlayRenderer, name);
+
+		final CompositeData[] timings = (CompositeData[]) server.getAttribute(name, "OverlayTimings");
+		assertEquals(1, timings.length);
+		assertEquals("CountingOverlay", timings[0].get("overlay"));
+		assertEquals(1L, timings[0].get("frames"));
+	}
+
+	private void frame(BufferedImage canvas)
+	{
+		overlayRenderer.onBeforeRender(new BeforeRender());
+		render(canvas);
+	}
+
+	private void render(BufferedImage canvas)
+	{
+		final Graphics2D graphics = canvas.createGraphics();
+		overlayRenderer.render(graphics, OverlayLayer.UNDER_WIDGETS);
+		graphics.dispose();
+	}
+}
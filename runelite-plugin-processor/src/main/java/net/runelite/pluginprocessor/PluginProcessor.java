@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.pluginprocessor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes a manifest of every class annotated with {@code @PluginDescriptor}, so the client can
+ * find its plugins without scanning the class path. The manifest is a JSON array with one object
+ * per plugin, containing the plugin class, its descriptor and the plugins it depends on. When
+ * only some of the sources are compiled, the plugins of the existing manifest which are still on
+ * the class path are kept.
+ */
+@SupportedAnnotationTypes(PluginProcessor.PLUGIN_DESCRIPTOR)
+public class PluginProcessor extends AbstractProcessor
+{
+	/**
+	 * Location of the manifest in the class output
+	 */
+	public static final String MANIFEST = "META-INF/runelite/plugins.json";
+
+	static final String PLUGIN_DESCRIPTOR = "net.runelite.client.plugins.PluginDescriptor";
+	private static final String PLUGIN_DEPENDENCY = "net.runelite.client.plugins.PluginDependency";
+	private static final String PLUGIN_DEPENDENCIES = "net.runelite.client.plugins.PluginDependencies";
+	private static final String PLUGIN = "net.runelite.client.plugins.Plugin";
+
+	/**
+	 * Start of every entry in the manifest, which is written with one entry per line
+	 */
+	private static final String ENTRY_PREFIX = "{\"className\":\"";
+
+	/**
+	 * Manifest entries, keyed and sorted by class name so the output is reproducible
+	 */
+	private final Map<String, String> entries = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		final TypeElement descriptor = processingEnv.getElementUtils().getTypeElement(PLUGIN_DESCRIPTOR);
+
+		if (descriptor != null)
+		{
+			for (Element element : roundEnv.getElementsAnnotatedWith(descriptor))
+			{
+				if (element.getKind() == ElementKind.CLASS)
+				{
+					addPlugin((TypeElement) element);
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !entries.isEmpty())
+		{
+			writeManifest();
+		}
+
+		// Other processors, such as Lombok, may also want these annotations
+		return false;
+	}
+
+	private void addPlugin(TypeElement type)
+	{
+		final TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED
+			|| !((TypeElement) ((DeclaredType) superclass).asElement()).getQualifiedName().contentEquals(PLUGIN))
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+				"Class has plugin descriptor, but is not a plugin", type);
+			return;
+		}
+
+		final StringBuilder sb = new StringBuilder();
+		sb.append("{\"className\":").append(quote(binaryName(type)));
+
+		for (AnnotationMirror mirror : type.getAnnotationMirrors())
+		{
+			final String annotation = qualifiedName(mirror);
+
+			if (annotation.equals(PLUGIN_DESCRIPTOR))
+			{
+				final Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+					processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet())
+				{
+					sb.append(',').append(quote(entry.getKey().getSimpleName().toString())).append(':');
+					appendValue(sb, entry.getValue().getValue());
+				}
+			}
+		}
+
+		sb.append(",\"dependencies\":[");
+		final List<String> dependencies = dependencies(type);
+		for (int i = 0; i < dependencies.size(); ++i)
+		{
+			if (i > 0)
+			{
+				sb.append(',');
+			}
+			sb.append(quote(dependencies.get(i)));
+		}
+		sb.append("]}");
+
+		entries.put(binaryName(type), sb.toString());
+	}
+
+	private List<String> dependencies(TypeElement type)
+	{
+		final List<String> dependencies = new ArrayList<>();
+
+		for (AnnotationMirror mirror : type.getAnnotationMirrors())
+		{
+			final String annotation = qualifiedName(mirror);
+
+			if (annotation.equals(PLUGIN_DEPENDENCY))
+			{
+				dependencies.add(dependencyValue(mirror));
+			}
+			else if (annotation.equals(PLUGIN_DEPENDENCIES))
+			{
+				// Repeated @PluginDependency annotations are wrapped in the container annotation
+				for (AnnotationValue value : (List<? extends AnnotationValue>) value(mirror))
+				{
+					dependencies.add(dependencyValue((AnnotationMirror) value.getValue()));
+				}
+			}
+		}
+
+		return dependencies;
+	}
+
+	private String dependencyValue(AnnotationMirror mirror)
+	{
+		final TypeMirror value = (TypeMirror) value(mirror);
+		return binaryName((TypeElement) processingEnv.getTypeUtils().asElement(value));
+	}
+
+	private void appendValue(StringBuilder sb, Object value)
+	{
+		if (value instanceof List)
+		{
+			sb.append('[');
+			final List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) value;
+			for (int i = 0; i < values.size(); ++i)
+			{
+				if (i > 0)
+				{
+					sb.append(',');
+				}
+				appendValue(sb, values.get(i).getValue());
+			}
+			sb.append(']');
+		}
+		else if (value instanceof Boolean || value instanceof Number)
+		{
+			sb.append(value);
+		}
+		else if (value instanceof Element)
+		{
+			// enum constant
+			sb.append(quote(((Element) value).getSimpleName().toString()));
+		}
+		else
+		{
+			sb.append(quote(String.valueOf(value)));
+		}
+	}
+
+	private void writeManifest()
+	{
+		// Incremental and IDE builds only pass the changed sources to javac, so keep the plugins
+		// from the previous manifest which were not compiled this time
+		final Map<String, String> manifest = readManifest();
+		manifest.putAll(entries);
+
+		try
+		{
+			final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST);
+
+			try (Writer writer = file.openWriter())
+			{
+				writer.write("[\n");
+				writer.write(String.join(",\n", manifest.values()));
+				writer.write("\n]\n");
+			}
+		}
+		catch (IOException ex)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write plugin manifest: " + ex);
+		}
+	}
+
+	/**
+	 * Reads the entries of the manifest left in the class output by an earlier compilation. Entries
+	 * of classes which can no longer be found on the class path, or which are no longer plugins, are
+	 * dropped.
+	 *
+	 * @return the entries keyed by class name, or an empty map if there is no manifest yet
+	 */
+	private Map<String, String> readManifest()
+	{
+		final Map<String, String> manifest = new TreeMap<>();
+		final CharSequence content;
+
+		try
+		{
+			content = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST).getCharContent(true);
+		}
+		catch (IOException | IllegalArgumentException ex)
+		{
+			// clean build
+			return manifest;
+		}
+
+		for (String line : content.toString().split("\n"))
+		{
+			line = line.trim();
+			if (!line.startsWith(ENTRY_PREFIX))
+			{
+				continue;
+			}
+
+			if (line.endsWith(","))
+			{
+				line = line.substring(0, line.length() - 1);
+			}
+
+			final int end = line.indexOf('"', ENTRY_PREFIX.length());
+			if (end == -1)
+			{
+				continue;
+			}
+
+			final String className = line.substring(ENTRY_PREFIX.length(), end);
+			if (isPlugin(className))
+			{
+				manifest.put(className, line);
+			}
+		}
+
+		return manifest;
+	}
+
+	private boolean isPlugin(String binaryName)
+	{
+		final TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+		if (type == null)
+		{
+			return false;
+		}
+
+		for (AnnotationMirror mirror : type.getAnnotationMirrors())
+		{
+			if (qualifiedName(mirror).equals(PLUGIN_DESCRIPTOR))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static Object value(AnnotationMirror mirror)
+	{
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet())
+		{
+			if (entry.getKey().getSimpleName().contentEquals("value"))
+			{
+				return entry.getValue().getValue();
+			}
+		}
+
+		return Collections.emptyList();
+	}
+
+	private static String qualifiedName(AnnotationMirror mirror)
+	{
+		return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private String binaryName(TypeElement type)
+	{
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private static String quote(String s)
+	{
+		final StringBuilder sb = new StringBuilder(s.length() + 2);
+		sb.append('"');
+
+		for (int i = 0; i < s.length(); ++i)
+		{
+			final char c = s.charAt(i);
+
+			switch (c)
+			{
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				default:
+					if (c < 0x20)
+					{
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else
+					{
+						sb.append(c);
+					}
+			}
+		}
+
+		return sb.append('"').toString();
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, https://runelitepl.us
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.pluginprocessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginProcessorTest
+{
+	private static final Pattern CLASS_NAME = Pattern.compile("\"className\":\"([^\"]+)\"");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File sources;
+	private File classes;
+
+	@Before
+	public void before() throws IOException
+	{
+		sources = folder.newFolder("src");
+		classes = folder.newFolder("classes");
+	}
+
+	@Test
+	public void testIncrementalCompile() throws IOException
+	{
+		final File plugin = source("net.runelite.client.plugins.Plugin",
+			"package net.runelite.client.plugins;\n"
+				+ "public abstract class Plugin {}\n");
+		final File descriptor = source("net.runelite.client.plugins.PluginDescriptor",
+			"package net.runelite.client.plugins;\n"
+				+ "public @interface PluginDescriptor { String name(); }\n");
+		final File first = plugin("FirstPlugin");
+		final File second = plugin("SecondPlugin");
+
+		compile(plugin, descriptor, first, second);
+		assertEquals(Arrays.asList("test.FirstPlugin", "test.SecondPlugin"), manifestClasses());
+
+		// the plugin which was not recompiled is still on the class path
+		compile(first);
+		assertEquals(Arrays.asList("test.FirstPlugin", "test.SecondPlugin"), manifestClasses());
+
+		// a plugin which has been deleted is dropped
+		Files.delete(new File(classes, "test/SecondPlugin.class").toPath());
+		compile(first);
+		assertEquals(Collections.singletonList("test.FirstPlugin"), manifestClasses());
+	}
+
+	private File plugin(String name) throws IOException
+	{
+		return source("test." + name,
+			"package test;\n"
+				+ "@net.runelite.client.plugins.PluginDescriptor(name = \"" + name + "\")\n"
+				+ "public class " + name + " extends net.runelite.client.plugins.Plugin {}\n");
+	}
+
+	private File source(String className, String source) throws IOException
+	{
+		final File file = new File(sources, className.replace('.', '/') + ".java");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private void compile(File... files) throws IOException
+	{
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8))
+		{
+			// like maven and IDEs, put the previous output on the class path
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classes));
+			fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.singletonList(classes));
+
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, null, null,
+				fileManager.getJavaFileObjects(files));
+			task.setProcessors(Collections.singletonList(new PluginProcessor()));
+			assertTrue("compilation failed", task.call());
+		}
+	}
+
+	private List<String> manifestClasses() throws IOException
+	{
+		final String manifest = new String(Files.readAllBytes(new File(classes, PluginProcessor.MANIFEST).toPath()), StandardCharsets.UTF_8);
+		final List<String> classNames = new ArrayList<>();
+		final Matcher matcher = CLASS_NAME.matcher(manifest);
+		while (matcher.find())
+		{
+			classNames.add(matcher.group(1));
+		}
+		return classNames;
+	}
+}